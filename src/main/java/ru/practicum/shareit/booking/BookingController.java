@@ -1,23 +1,37 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -38,18 +52,64 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookings(@RequestParam(required = false, defaultValue = "ALL") String state,
-                                           @RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllBookings(state, userId, false, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookings(BookingFilterDto filter,
+                                                           @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookings(filter, userId, false, from, size));
+        }
+        return toResponse(bookingService.getBookingsPage(filter, userId, false, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwner(@RequestParam(required = false, defaultValue = "ALL") String state,
-                                               @RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllBookings(state, userId, true, from, size);
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(BookingFilterDto filter,
+                                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookings(filter, userId, true, from, size));
+        }
+        return toResponse(bookingService.getBookingsPage(filter, userId, true, cursor, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toNdjson(userId, false);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return toNdjson(userId, true);
+    }
+
+    private ResponseEntity<StreamingResponseBody> toNdjson(Long userId, boolean isByOwner) {
+        bookingService.validateExport(userId);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setRootValueSeparator(null);
+            bookingService.exportBookings(userId, isByOwner, booking -> {
+                try {
+                    generator.writeObject(booking);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import ru.practicum.shareit.exception.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Data
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime end;
+    private final Long id;
+
+    public String encode() {
+        String value = end + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(String.format("Некорректный курсор: %s", cursor));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+public class BookingFilter {
+    private final Long userId;
+    private final boolean byOwner;
+    private final Set<BookingState> states;
+    private final LocalDateTime currentDate;
+    private final Long itemId;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+
+    public static BookingFilter of(Long userId, boolean byOwner, Set<BookingState> states, LocalDateTime currentDate) {
+        return new BookingFilter(userId, byOwner, states, currentDate, null, null, null);
+    }
+}
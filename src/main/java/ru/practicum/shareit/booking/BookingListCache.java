@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Component
+public class BookingListCache {
+    static final String CACHE_NAME = "bookingLists";
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final long bucketMillis;
+    private final Cache<Key, Entry> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final Timer staleness;
+    private final Counter invalidations;
+    private final ReadYourWritesTracker tracker;
+
+    public BookingListCache(Duration bucket, long maxSize, MeterRegistry registry) {
+        this(bucket, maxSize, registry, (ReadYourWritesTracker) null);
+    }
+
+    @Autowired
+    public BookingListCache(@Value("${shareit.booking.list-cache.bucket:1m}") Duration bucket,
+                            @Value("${shareit.booking.list-cache.max-size:10000}") long maxSize,
+                            MeterRegistry registry,
+                            ObjectProvider<ReadYourWritesTracker> tracker) {
+        this(bucket, maxSize, registry, tracker.getIfAvailable());
+    }
+
+    private BookingListCache(Duration bucket, long maxSize, MeterRegistry registry, ReadYourWritesTracker tracker) {
+        if (bucket.isNegative() || !bucket.isZero() && bucket.toMillis() == 0) {
+            throw new IllegalArgumentException(
+                    "shareit.booking.list-cache.bucket must be 0 or at least 1ms, got " + bucket);
+        }
+        this.tracker = tracker;
+        this.bucketMillis = bucket.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(bucket)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder("booking.list.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(registry);
+        this.staleness = Timer.builder("booking.list.cache.staleness")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.invalidations = Counter.builder("booking.list.cache.invalidations")
+                .register(registry);
+    }
+
+    public List<BookingDto> get(BookingFilter filter, int from, int size, Supplier<List<BookingDto>> loader) {
+        if (bucketMillis == 0) {
+            return loader.get();
+        }
+        LocalDateTime now = filter.getCurrentDate();
+        Key key = new Key(withCurrentDate(filter, bucketStart(now)), from, size,
+                generations.get(stripe(filter.getUserId(), filter.isByOwner())));
+
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            staleness.record(Duration.between(cached.getLoadedAt(), now));
+            return cached.getBookings();
+        }
+        List<BookingDto> bookings = List.copyOf(loader.get());
+        cache.put(key, new Entry(bookings, now));
+        return bookings;
+    }
+
+    public void invalidate(Long... userIds) {
+        AfterCommit.run(() -> advanceGenerations(userIds));
+    }
+
+    /**
+     * Moves both parties of the booking to a new generation. With read replicas they are also sent to the
+     * primary for the replica lag, otherwise the first reload could read the old rows from a replica and keep
+     * them cached under the new generation for the rest of the bucket.
+     */
+    private void advanceGenerations(Long... userIds) {
+        for (Long userId : userIds) {
+            if (tracker != null) {
+                tracker.markWrite(userId);
+            }
+            generations.set(stripe(userId, false), generationSequence.incrementAndGet());
+            generations.set(stripe(userId, true), generationSequence.incrementAndGet());
+        }
+        invalidations.increment();
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime now) {
+        long millis = now.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis - Math.floorMod(millis, bucketMillis)),
+                ZoneOffset.UTC);
+    }
+
+    private static BookingFilter withCurrentDate(BookingFilter filter, LocalDateTime currentDate) {
+        return new BookingFilter(filter.getUserId(), filter.isByOwner(), filter.getStates(), currentDate,
+                filter.getItemId(), filter.getRangeStart(), filter.getRangeEnd());
+    }
+
+    private static int stripe(Long userId, boolean byOwner) {
+        int hash = 31 * userId.hashCode() + Boolean.hashCode(byOwner);
+        hash ^= hash >>> 16;
+        return hash & (GENERATION_STRIPES - 1);
+    }
+
+    @Data
+    private static class Key {
+        private final BookingFilter filter;
+        private final int from;
+        private final int size;
+        private final long generation;
+    }
+
+    @Data
+    private static class Entry {
+        private final List<BookingDto> bookings;
+        private final LocalDateTime loadedAt;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface BookingQueryRepository {
+    List<BookingDto> findAll(BookingFilter filter, Pageable pageable);
+
+    List<BookingDto> findPageAfter(BookingFilter filter, BookingCursor cursor, int limit);
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findAll(BookingFilter filter, Pageable pageable) {
+        TypedQuery<BookingDto> query = createQuery(filter, null);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<BookingDto> findPageAfter(BookingFilter filter, BookingCursor cursor, int limit) {
+        return createQuery(filter, cursor)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<BookingDto> createQuery(BookingFilter filter, BookingCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(filter.isByOwner()
+                ? cb.equal(item.get("owner").get("id"), filter.getUserId())
+                : cb.equal(booking.get("booker").get("id"), filter.getUserId()));
+
+        List<Predicate> periods = new ArrayList<>();
+        Set<BookingStatus> statuses = EnumSet.noneOf(BookingStatus.class);
+        LocalDateTime currentDate = filter.getCurrentDate();
+        for (BookingState state : filter.getStates()) {
+            switch (state) {
+                case CURRENT:
+                    periods.add(cb.and(cb.lessThanOrEqualTo(start, currentDate),
+                            cb.greaterThanOrEqualTo(end, currentDate)));
+                    break;
+                case PAST:
+                    periods.add(cb.lessThan(end, currentDate));
+                    break;
+                case FUTURE:
+                    periods.add(cb.greaterThan(end, currentDate));
+                    break;
+                case WAITING:
+                    statuses.add(BookingStatus.WAITING);
+                    break;
+                case REJECTED:
+                    statuses.add(BookingStatus.REJECTED);
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!periods.isEmpty()) {
+            predicates.add(cb.or(periods.toArray(new Predicate[0])));
+        }
+        if (!statuses.isEmpty()) {
+            predicates.add(booking.get("status").in(statuses));
+        }
+
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(item.get("id"), filter.getItemId()));
+        }
+        if (filter.getRangeStart() != null) {
+            predicates.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            predicates.add(cb.lessThan(start, filter.getRangeEnd()));
+        }
+
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(end, cursor.getEnd()),
+                    cb.and(cb.equal(end, cursor.getEnd()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(BookingDto.class, id, item.get("id"), item.get("name"), start, end,
+                        booking.get("booker").get("id"), booking.get("status")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(end), cb.desc(id));
+
+        return entityManager.createQuery(query);
+    }
+}
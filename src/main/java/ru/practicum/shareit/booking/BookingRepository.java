@@ -1,59 +1,37 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBooker_IdOrderByEndDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByItem_Owner_IdOrderByEndDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findAllByItem_Id(Long itemId);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.start <= ?2 " +
-            "and b.end >= ?2 " +
-            "order by b.end desc ")
-    List<Booking> findAllCurrentByBooker(Long bookerId, LocalDateTime currentDate, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id= ?1 " +
-            "and b.end < ?2 " +
-            "order by b.end desc ")
-    List<Booking> findAllPastByBooker(Long bookerId, LocalDateTime currentDate, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker.id= ?1 " +
-            "and b.end > ?2 " +
-            "order by b.end desc")
-    List<Booking> findAllFutureByBooker(Long bookerId, LocalDateTime currentDate, Pageable pageable);
-
-    List<Booking> findAllByBooker_IdAndStatusOrderByEnd(Long bookerId, BookingStatus status, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id= ?1 " +
-            "and b.start <= ?2 " +
-            "and b.end >= ?2 " +
-            "order by b.end desc")
-    List<Booking> findAllCurrentByOwner(Long ownerId, LocalDateTime currentDate, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id= ?1 " +
-            "and b.end < ?2 " +
-            "order by b.end desc ")
-    List<Booking> findAllPastByOwner(Long ownerId, LocalDateTime currentDate, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and b.end > ?2 " +
-            "order by b.end desc")
-    List<Booking> findAllFutureByOwner(Long ownerId, LocalDateTime currentDate, Pageable pageable);
+import java.util.stream.Stream;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.item.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?3 " +
+            "and b.start = (select max(lb.start) from Booking lb " +
+            "where lb.item.id = b.item.id and lb.status = ?3 and lb.start <= ?2)")
+    List<BookingShortDto> findLastBookings(Collection<Long> itemIds, LocalDateTime currentDate, BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.item.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = ?3 " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.status = ?3 and nb.start > ?2)")
+    List<BookingShortDto> findNextBookings(Collection<Long> itemIds, LocalDateTime currentDate, BookingStatus status);
 
     @Query("select b from Booking b " +
             "where b.item.id = ?1 " +
@@ -61,12 +39,42 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.end < ?3 ")
     List<Booking> findAllBookingsOfItemAndOwner(Long itemId, Long bookerId, LocalDateTime currentDate);
 
-    List<Booking> findAllByItem_Owner_IdAndStatusOrderByEndDesc(Long ownerId, BookingStatus status, Pageable pageable);
-
-    @Query("select b from Booking b " +
+    @Query("select case when count(b) > 0 then true else false end " +
+            "from Booking b " +
             "where b.item.id = ?1 " +
-            "and b.start between ?2 and ?3 " +
-            "and b.end between ?2 and ?3 ")
-    List<Booking> findAllOverlappedBookings(Long itemId, LocalDateTime start, LocalDateTime end);
-
+            "and b.status in ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3")
+    boolean existsOverlappedBooking(Long itemId, Collection<BookingStatus> statuses,
+                                    LocalDateTime start, LocalDateTime end);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ?2 " +
+            "and b.end > ?3")
+    List<BookingIntervalDto> findBlockingIntervals(Long itemId, Collection<BookingStatus> statuses,
+                                                   LocalDateTime currentDate);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.item.id, b.item.name, b.start, b.end, b.booker.id, b.status) " +
+            "from Booking b " +
+            "where b.booker.id = ?1 " +
+            "order by b.end desc")
+    Stream<BookingDto> streamAllByBooker_Id(Long bookerId);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.item.id, b.item.name, b.start, b.end, b.booker.id, b.status) " +
+            "from Booking b " +
+            "where b.item.owner.id = ?1 " +
+            "order by b.end desc")
+    Stream<BookingDto> streamAllByItem_Owner_Id(Long ownerId);
 }
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto addBooking(CreateBookingDto bookingDto, Long bookerId);
@@ -13,5 +16,11 @@ public interface BookingService {
 
     BookingDto getBooking(Long bookingId, Long userId);
 
-    List<BookingDto> getAllBookings(String state, Long userId, boolean isByOwner, Integer from, Integer size);
+    List<BookingDto> getAllBookings(BookingFilterDto filter, Long userId, boolean isByOwner, Integer from, Integer size);
+
+    BookingPageDto getBookingsPage(BookingFilterDto filter, Long userId, boolean isByOwner, String cursor, Integer size);
+
+    void validateExport(Long userId);
+
+    void exportBookings(Long userId, boolean isByOwner, Consumer<BookingDto> consumer);
 }
@@ -2,14 +2,19 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDTOMapper;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
+import ru.practicum.shareit.common.StripedLock;
 import ru.practicum.shareit.exception.exceptions.BadRequestException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -18,8 +23,12 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -30,15 +39,31 @@ public class BookingServiceImpl implements BookingService {
 
     private final ItemRepository itemRepository;
 
+    private final StripedLock itemLocks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RequestTime requestTime;
+
+    private final BookingListCache listCache;
+
+    private final BookingTimelineCache timelineCache;
+
     @Override
     public BookingDto addBooking(CreateBookingDto bookingDto, Long bookerId) {
-        User user = userRepository.findById(bookerId)
-                .orElseThrow(() -> {
-                    String errorMessage = String.format("Пользователь с id=%d не найден", bookerId);
-                    log.error(errorMessage);
-                    throw new NotFoundException(errorMessage);
-                });
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Lock itemLock = itemLocks.get(bookingDto.getItemId());
+        itemLock.lock();
+        try {
+            return transactionTemplate.execute(status -> createBooking(bookingDto, bookerId));
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    private BookingDto createBooking(CreateBookingDto bookingDto, Long bookerId) {
+        checkUserExists(bookerId);
+        User user = userRepository.getReferenceById(bookerId);
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> {
                     String errorMessage = String.format("Вещь с id=%d не найдена", bookingDto.getItemId());
                     log.error(errorMessage);
@@ -60,13 +85,16 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException(ownerValidation);
         }
 
-        Booking booking = repository.saveAndFlush(BookingDTOMapper
+        Booking booking = repository.save(BookingDTOMapper
                 .fromCreateBookingDto(bookingDto, user, item, BookingStatus.WAITING));
+        listCache.invalidate(bookerId, item.getOwner().getId());
+        timelineCache.onStatusChanged(booking);
         log.info(String.format("Добавление бронирование: %s", booking));
         return BookingDTOMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional
     public ConfirmedBookingDto confirmBooking(Long bookingId, Long userId, Boolean isApproved) {
         Booking booking = repository.findById(bookingId)
                 .orElseThrow(() -> {
@@ -87,11 +115,14 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        listCache.invalidate(booking.getBooker().getId(), userId);
+        timelineCache.onStatusChanged(booking);
         log.info(String.format("Подтверждение бронирования с id=%d: %b", bookingId, isApproved));
-        return BookingDTOMapper.toConfirmedBookingDto(repository.saveAndFlush(booking));
+        return BookingDTOMapper.toConfirmedBookingDto(booking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBooking(Long bookingId, Long userId) {
         Booking booking = repository.findById(bookingId)
                 .orElseThrow(() -> {
@@ -108,105 +139,89 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllBookings(String state, Long userId, boolean isByOwner, Integer from, Integer size) {
+    public List<BookingDto> getAllBookings(BookingFilterDto filterDto, Long userId, boolean isByOwner,
+                                           Integer from, Integer size) {
         CustomPageRequest pageRequest = new CustomPageRequest(from, size);
-        BookingState stateValue;
-        try {
-            stateValue = BookingState.valueOf(state);
-        } catch (Exception e) {
-            String errorMessage = String.format("Unknown state: %s", state);
-            log.error(errorMessage);
-            throw new BadRequestException(errorMessage);
-        }
+        BookingFilter filter = toFilter(filterDto, userId, isByOwner);
+        checkUserExists(userId);
 
-        if (userRepository.findById(userId).isEmpty()) {
-            String errorMessage = String.format("Пользователь с id=%d не найден", userId);
-            log.error(errorMessage);
-            throw new NotFoundException(errorMessage);
+        return listCache.get(filter, from, size, () -> repository.findAll(filter, pageRequest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookingsPage(BookingFilterDto filterDto, Long userId, boolean isByOwner,
+                                          String cursor, Integer size) {
+        BookingFilter filter = toFilter(filterDto, userId, isByOwner);
+        BookingCursor after = BookingCursor.decode(cursor);
+        checkUserExists(userId);
+
+        List<BookingDto> bookings = repository.findPageAfter(filter, after, size + 1);
+        boolean hasNext = bookings.size() > size;
+        List<BookingDto> page = hasNext ? bookings.subList(0, size) : bookings;
+
+        String nextCursor = null;
+        if (hasNext) {
+            BookingDto last = page.get(page.size() - 1);
+            nextCursor = new BookingCursor(last.getEnd(), last.getId()).encode();
         }
-        if (isByOwner) {
-            return getBookingsByOwner(stateValue, userId, pageRequest);
+
+        return new BookingPageDto(page, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void validateExport(Long userId) {
+        checkUserExists(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(Long userId, boolean isByOwner, Consumer<BookingDto> consumer) {
+        log.info(String.format("Выгрузка бронирований пользователя с id=%d", userId));
+
+        try (Stream<BookingDto> bookings = isByOwner
+                ? repository.streamAllByItem_Owner_Id(userId)
+                : repository.streamAllByBooker_Id(userId)) {
+            bookings.forEach(consumer);
         }
+    }
 
-        return getBookingsByBooker(stateValue, userId, pageRequest);
+    private BookingFilter toFilter(BookingFilterDto filterDto, Long userId, boolean isByOwner) {
+        if (filterDto.getRangeStart() != null && filterDto.getRangeEnd() != null
+                && filterDto.getRangeEnd().isBefore(filterDto.getRangeStart())) {
+            String errorMessage = "Конец периода не может быть раньше начала";
+            log.error(errorMessage);
+            throw new BadRequestException(errorMessage);
+        }
+        return new BookingFilter(userId, isByOwner, parseStates(filterDto.getState()), requestTime.now(),
+                filterDto.getItemId(), filterDto.getRangeStart(), filterDto.getRangeEnd());
     }
 
-    private List<BookingDto> getBookingsByOwner(BookingState state, Long userId, Pageable pageable) {
-        List<BookingDto> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = repository.findAllCurrentByOwner(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case PAST:
-                bookings = repository.findAllPastByOwner(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case FUTURE:
-                bookings = repository.findAllFutureByOwner(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case WAITING:
-                bookings = repository
-                        .findAllByItem_Owner_IdAndStatusOrderByEndDesc(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case REJECTED:
-                bookings = repository
-                        .findAllByItem_Owner_IdAndStatusOrderByEndDesc(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            default:
-                bookings = repository.findAllByItem_Owner_IdOrderByEndDesc(userId, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
+    private Set<BookingState> parseStates(String state) {
+        Set<BookingState> states = EnumSet.noneOf(BookingState.class);
+        if (state == null || state.isBlank()) {
+            states.add(BookingState.ALL);
+            return states;
         }
-        return bookings;
+        for (String value : state.split(",")) {
+            try {
+                states.add(BookingState.valueOf(value.trim()));
+            } catch (Exception e) {
+                String errorMessage = String.format("Unknown state: %s", value.trim());
+                log.error(errorMessage);
+                throw new BadRequestException(errorMessage);
+            }
+        }
+        return states;
     }
 
-    private List<BookingDto> getBookingsByBooker(BookingState state, Long userId, Pageable pageable) {
-        List<BookingDto> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = repository.findAllCurrentByBooker(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case PAST:
-                bookings = repository.findAllPastByBooker(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case FUTURE:
-                bookings = repository.findAllFutureByBooker(userId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case WAITING:
-                bookings = repository
-                        .findAllByBooker_IdAndStatusOrderByEnd(userId, BookingStatus.WAITING, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case REJECTED:
-                bookings = repository
-                        .findAllByBooker_IdAndStatusOrderByEnd(userId, BookingStatus.REJECTED, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            default:
-                bookings = repository.findAllByBooker_IdOrderByEndDesc(userId, pageable).stream()
-                        .map(BookingDTOMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            String errorMessage = String.format("Пользователь с id=%d не найден", userId);
+            log.error(errorMessage);
+            throw new NotFoundException(errorMessage);
         }
-        return bookings;
     }
 
     private void checkDates(Long itemId, LocalDateTime start, LocalDateTime end) {
@@ -216,13 +231,13 @@ public class BookingServiceImpl implements BookingService {
             log.error(message);
             throw new BadRequestException(message);
         }
-        if (start.isBefore(LocalDateTime.now())) {
+        if (start.isBefore(requestTime.now())) {
             message = "Дата начала бронирования не может быть в прошлом";
             log.error(message);
             throw new BadRequestException(message);
         }
-        List<Booking> overlappingBookings = repository.findAllOverlappedBookings(itemId, start, end);
-        if (!overlappingBookings.isEmpty()) {
+        boolean isOverlapped = repository.existsOverlappedBooking(itemId, BookingStatus.BLOCKING, start, end);
+        if (isOverlapped) {
             message = "Вещь недоступна для бронирования в эти даты";
             log.error(message);
             throw new BadRequestException(message);
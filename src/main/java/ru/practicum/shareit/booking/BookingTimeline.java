@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+public class BookingTimeline {
+    private static final Comparator<BookingIntervalDto> BY_START = Comparator
+            .comparing(BookingIntervalDto::getStart)
+            .thenComparing(BookingIntervalDto::getId);
+
+    private final NavigableSet<BookingIntervalDto> intervals = new TreeSet<>(BY_START);
+    private final Map<Long, BookingIntervalDto> byId = new HashMap<>();
+
+    public BookingTimeline(List<BookingIntervalDto> bookings) {
+        bookings.forEach(this::add);
+    }
+
+    public synchronized void add(BookingIntervalDto booking) {
+        remove(booking.getId());
+        intervals.add(booking);
+        byId.put(booking.getId(), booking);
+    }
+
+    public synchronized void remove(Long bookingId) {
+        BookingIntervalDto booking = byId.remove(bookingId);
+        if (booking != null) {
+            intervals.remove(booking);
+        }
+    }
+
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+    public synchronized List<FreeIntervalDto> freeIntervals(LocalDateTime now, LocalDateTime from, LocalDateTime to) {
+        intervals.removeIf(booking -> {
+            boolean ended = !booking.getEnd().isAfter(now);
+            if (ended) {
+                byId.remove(booking.getId());
+            }
+            return ended;
+        });
+
+        List<FreeIntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (BookingIntervalDto booking : intervals) {
+            if (!booking.getStart().isBefore(to)) {
+                break;
+            }
+            if (booking.getStart().isAfter(freeFrom)) {
+                free.add(new FreeIntervalDto(freeFrom, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+            if (!freeFrom.isBefore(to)) {
+                return free;
+            }
+        }
+        free.add(new FreeIntervalDto(freeFrom, to));
+        return free;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+public class BookingTimelineCache {
+    static final String CACHE_NAME = "bookingTimelines";
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Cache<Long, BookingTimeline> timelines;
+
+    public BookingTimelineCache(BookingRepository bookingRepository, ItemRepository itemRepository,
+                                @Value("${shareit.booking.timeline.expire-after-write:30s}") Duration expireAfterWrite,
+                                @Value("${shareit.booking.timeline.max-size:10000}") long maxSize,
+                                MeterRegistry registry) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAfterLoad(expireAfterWrite))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, timelines, CACHE_NAME);
+    }
+
+    public Optional<BookingTimeline> get(Long itemId, LocalDateTime now) {
+        return Optional.ofNullable(timelines.get(itemId, id -> load(id, now)));
+    }
+
+    public void onStatusChanged(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (BookingStatus.BLOCKING.contains(booking.getStatus())) {
+            BookingIntervalDto interval = new BookingIntervalDto(booking.getId(), booking.getStart(), booking.getEnd());
+            AfterCommit.run(() -> update(itemId, timeline -> timeline.add(interval)));
+        } else {
+            Long bookingId = booking.getId();
+            AfterCommit.run(() -> update(itemId, timeline -> timeline.remove(bookingId)));
+        }
+    }
+
+    public void evict(Long itemId) {
+        AfterCommit.run(() -> timelines.invalidate(itemId));
+    }
+
+    /**
+     * compute waits for a load of the same item that is still running (computeIfPresent and getIfPresent do not),
+     * so a booking committed after the loader's query is applied once the timeline is stored instead of being
+     * dropped. An absent timeline stays absent.
+     */
+    private void update(Long itemId, Consumer<BookingTimeline> change) {
+        timelines.asMap().compute(itemId, (id, timeline) -> {
+            if (timeline != null) {
+                change.accept(timeline);
+            }
+            return timeline;
+        });
+    }
+
+    private BookingTimeline load(Long itemId, LocalDateTime now) {
+        if (!itemRepository.existsById(itemId)) {
+            return null;
+        }
+        return new BookingTimeline(bookingRepository.findBlockingIntervals(itemId,
+                BookingStatus.BLOCKING, now));
+    }
+
+    /**
+     * Counts the expiry from the load only. Local updates keep the remaining time, so a busy item is still
+     * reloaded and picks up bookings written by other instances.
+     */
+    private static class ExpireAfterLoad implements Expiry<Long, BookingTimeline> {
+        private final long ttlNanos;
+
+        ExpireAfterLoad(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, BookingTimeline timeline, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, BookingTimeline timeline, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, BookingTimeline timeline, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
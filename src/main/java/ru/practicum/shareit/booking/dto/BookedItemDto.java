@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+@Data
+public class BookedItemDto {
+    private final Long id;
+    private final String name;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+@Data
+public class BookerDto {
+    private final Long id;
+}
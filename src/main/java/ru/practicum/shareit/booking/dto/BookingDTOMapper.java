@@ -9,10 +9,11 @@ public final class BookingDTOMapper {
     public static BookingDto toBookingDto(Booking booking) {
         return new BookingDto(
                 booking.getId(),
-                booking.getItem(),
+                booking.getItem().getId(),
+                booking.getItem().getName(),
                 booking.getStart(),
                 booking.getEnd(),
-                booking.getBooker(),
+                booking.getBooker().getId(),
                 booking.getStatus()
         );
     }
@@ -32,8 +33,8 @@ public final class BookingDTOMapper {
         return new ConfirmedBookingDto(
                 booking.getId(),
                 booking.getStatus(),
-                booking.getBooker(),
-                booking.getItem(),
+                new BookerDto(booking.getBooker().getId()),
+                new BookedItemDto(booking.getItem().getId(), booking.getItem().getName()),
                 booking.getStart(),
                 booking.getEnd()
         );
@@ -45,4 +46,11 @@ public final class BookingDTOMapper {
         }
         return new BookingItemDto(booking.getId(), booking.getBooker().getId());
     }
+
+    public static BookingItemDto toBookingItemDto(BookingShortDto booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingItemDto(booking.getId(), booking.getBookerId());
+    }
 }
@@ -1,19 +1,24 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 
 @Data
+@AllArgsConstructor
 public class BookingDto {
     private final Long id;
-    private final Item item;
+    private final BookedItemDto item;
     private final LocalDateTime start;
     private final LocalDateTime end;
-    private final User booker;
+    private final BookerDto booker;
     private final BookingStatus status;
+
+    public BookingDto(Long id, Long itemId, String itemName, LocalDateTime start, LocalDateTime end,
+                      Long bookerId, BookingStatus status) {
+        this(id, new BookedItemDto(itemId, itemName), start, end, new BookerDto(bookerId), status);
+    }
 }
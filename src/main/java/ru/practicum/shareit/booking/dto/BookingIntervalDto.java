@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingIntervalDto {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingPageDto {
+    private final List<BookingDto> bookings;
+    private final String nextCursor;
+}
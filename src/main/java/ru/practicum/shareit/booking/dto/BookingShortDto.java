@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+@Data
+public class BookingShortDto {
+    private final Long id;
+    private final Long itemId;
+    private final Long bookerId;
+}
@@ -2,8 +2,6 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -11,8 +9,8 @@ import java.time.LocalDateTime;
 public class ConfirmedBookingDto {
     private final Long id;
     private final BookingStatus status;
-    private final User booker;
-    private final Item item;
+    private final BookerDto booker;
+    private final BookedItemDto item;
     private final LocalDateTime start;
     private final LocalDateTime end;
 }
@@ -20,8 +20,12 @@ import java.util.Objects;
 @Table(name = "bookings")
 @Entity
 public class Booking {
+    public static final String ID_SEQUENCE = "bookings_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
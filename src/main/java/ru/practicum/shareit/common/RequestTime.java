@@ -0,0 +1,30 @@
+package ru.practicum.shareit.common;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class RequestTime {
+    private static final String NOW_ATTRIBUTE = RequestTime.class.getName() + ".now";
+
+    private final Clock clock;
+
+    public LocalDateTime now() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return LocalDateTime.now(clock);
+        }
+        LocalDateTime now = (LocalDateTime) attributes.getAttribute(NOW_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (now == null) {
+            now = LocalDateTime.now(clock);
+            attributes.setAttribute(NOW_ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST);
+        }
+        return now;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives handlers that stream their response body ({@link StreamingResponseBody}) a timeout of their own.
+ * All other async requests keep the container default.
+ */
+@Configuration
+public class StreamingTimeoutConfig implements WebMvcConfigurer {
+    private final Duration timeout;
+
+    public StreamingTimeoutConfig(@Value("${shareit.streaming.request-timeout:30m}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new StreamingTimeoutInterceptor(timeout.toMillis()));
+    }
+
+    private static class StreamingTimeoutInterceptor implements CallableProcessingInterceptor {
+        private final long timeoutMillis;
+
+        StreamingTimeoutInterceptor(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (request instanceof AsyncWebRequest && handler instanceof HandlerMethod
+                    && streamsBody((HandlerMethod) handler)) {
+                ((AsyncWebRequest) request).setTimeout(timeoutMillis);
+            }
+        }
+
+        private boolean streamsBody(HandlerMethod handler) {
+            ResolvableType returnType = ResolvableType.forMethodReturnType(handler.getMethod());
+            if (ResponseEntity.class.isAssignableFrom(returnType.toClass())) {
+                returnType = returnType.getGeneric(0);
+            }
+            return StreamingResponseBody.class.isAssignableFrom(returnType.toClass());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class StripedLock {
+    private static final int DEFAULT_STRIPES = 256;
+
+    private final Lock[] stripes;
+
+    public StripedLock() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Long key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.urls")
+public class DataSourceConfig {
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${shareit.datasource.replica.max-lag:5s}") Duration maxReplicaLag) {
+        return new ReadYourWritesTracker(maxReplicaLag);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariConfig hikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, HikariConfig hikariConfig, ReadYourWritesTracker tracker,
+            @Value("${shareit.datasource.replica.urls}") List<String> replicaUrls) {
+        HikariDataSource primary = pool(hikariConfig, properties, properties.determineUrl(),
+                ReplicaRoutingDataSource.PRIMARY, false);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            replicas.add(pool(hikariConfig, properties, url,
+                    ReplicaRoutingDataSource.REPLICA + replicas.size(), true));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, tracker);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect(ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        ReplicaAwareJpaDialect dialect = new ReplicaAwareJpaDialect(SingletonSupplier.of(routingDataSource::getObject));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setJpaDialect(dialect);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource pool(HikariConfig settings, DataSourceProperties properties, String url,
+                                  String poolName, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        settings.copyStateTo(config);
+        config.setJdbcUrl(url);
+        if (config.getUsername() == null) {
+            config.setUsername(properties.determineUsername());
+        }
+        if (config.getPassword() == null) {
+            config.setPassword(properties.determinePassword());
+        }
+        if (config.getDriverClassName() == null) {
+            config.setDriverClassName(properties.determineDriverClassName());
+        }
+        config.setPoolName(poolName);
+        config.setReadOnly(readOnly);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWritesTracker.setCurrentUser(parseUserId(request.getHeader(USER_HEADER)));
+        try {
+            chain.doFilter(request, response);
+            if (isWrite(request) && response.getStatus() < 400) {
+                tracker.markWrite();
+            }
+        } finally {
+            ReadYourWritesTracker.clearCurrentUser();
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    private Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration maxReplicaLag) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxReplicaLag)
+                .build();
+    }
+
+    public static void setCurrentUser(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clearCurrentUser() {
+        CURRENT_USER.remove();
+    }
+
+    public void markWrite() {
+        Long userId = CURRENT_USER.get();
+        if (userId != null) {
+            markWrite(userId);
+        }
+    }
+
+    public void markWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean mustReadPrimary() {
+        Long userId = CURRENT_USER.get();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
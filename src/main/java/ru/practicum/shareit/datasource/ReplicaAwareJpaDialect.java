@@ -0,0 +1,59 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Keeps replica reads out of the second-level and query caches. A session that will be routed to a
+ * replica may still read cached entries, but does not put what it loads into the shared caches,
+ * so a lagging replica cannot leave stale entries there for other users.
+ */
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    private static final String CACHE_STORE_MODE = "javax.persistence.cache.storeMode";
+
+    private final Supplier<ReplicaRoutingDataSource> routingDataSource;
+
+    ReplicaAwareJpaDialect(Supplier<ReplicaRoutingDataSource> routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!routingDataSource.get().routesToReplica(definition.isReadOnly())) {
+            return transactionData;
+        }
+        Object previousStoreMode = entityManager.getProperties().get(CACHE_STORE_MODE);
+        entityManager.setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReplicaTransactionData(entityManager, previousStoreMode, transactionData);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData) {
+            ReplicaTransactionData replicaData = (ReplicaTransactionData) transactionData;
+            replicaData.entityManager.setProperty(CACHE_STORE_MODE,
+                    replicaData.previousStoreMode == null ? CacheStoreMode.USE : replicaData.previousStoreMode);
+            transactionData = replicaData.transactionData;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private static class ReplicaTransactionData {
+        private final EntityManager entityManager;
+        private final Object previousStoreMode;
+        private final Object transactionData;
+
+        ReplicaTransactionData(EntityManager entityManager, Object previousStoreMode, Object transactionData) {
+            this.entityManager = entityManager;
+            this.previousStoreMode = previousStoreMode;
+            this.transactionData = transactionData;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica-";
+
+    private final List<DataSource> targets = new ArrayList<>();
+    private final int replicas;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker) {
+        this.replicas = replicas.size();
+        this.tracker = tracker;
+        this.targets.add(primary);
+        this.targets.addAll(replicas);
+        Map<Object, Object> lookup = new HashMap<>();
+        lookup.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            lookup.put(REPLICA + i, replicas.get(i));
+        }
+        setTargetDataSources(lookup);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!routesToReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return PRIMARY;
+        }
+        return REPLICA + Math.floorMod(next.getAndIncrement(), replicas);
+    }
+
+    boolean routesToReplica(boolean readOnly) {
+        return replicas > 0 && readOnly && !tracker.mustReadPrimary();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : targets) {
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+}
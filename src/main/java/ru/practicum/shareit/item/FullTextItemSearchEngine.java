@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("!ci & !test")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository repository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<String> tokens = ItemSearchEngine.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return repository.searchFullText(toTsQuery(tokens), pageable);
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<String> tokens = ItemSearchEngine.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return repository.searchFullTextAvailable(toTsQuery(tokens), blockingStatuses(), start, end, pageable);
+    }
+
+    @Override
+    public List<Item> findFuzzyCandidates(String text, int limit) {
+        List<String> tokens = ItemSearchEngine.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return repository.searchSimilar(String.join(" ", tokens), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Item> findFuzzyAvailableCandidates(String text, LocalDateTime start, LocalDateTime end, int limit) {
+        List<String> tokens = ItemSearchEngine.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return repository.searchSimilarAvailable(String.join(" ", tokens), blockingStatuses(), start, end,
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    private List<String> blockingStatuses() {
+        return BookingStatus.BLOCKING.stream()
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+
+    private String toTsQuery(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
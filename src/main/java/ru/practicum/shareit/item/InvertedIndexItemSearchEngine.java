@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Profile({"ci", "test"})
+@RequiredArgsConstructor
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    static final int ID_CHUNK_SIZE = 500;
+
+    private final ItemRepository repository;
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+    private final Map<Long, List<String>> itemTokens = new HashMap<>();
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        postings.clear();
+        trigramPostings.clear();
+        itemTokens.clear();
+        repository.findAll().forEach(this::index);
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> ids = findIds(ItemSearchEngine.tokenize(text)).stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<Long> ids = new ArrayList<>(findIds(ItemSearchEngine.tokenize(text)));
+        return findAvailable(ids, start, end, pageable.getOffset() + pageable.getPageSize()).stream()
+                .skip(pageable.getOffset())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> findFuzzyCandidates(String text, int limit) {
+        List<Long> ids = findSimilarIds(ItemSearchEngine.tokenize(text), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repository.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findFuzzyAvailableCandidates(String text, LocalDateTime start, LocalDateTime end, int limit) {
+        return findAvailable(findSimilarIds(ItemSearchEngine.tokenize(text), Integer.MAX_VALUE), start, end, limit);
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        List<String> tokens = ItemSearchEngine.tokenize(item.getName() + " " + item.getDescription());
+        tokens.forEach(token -> postings.computeIfAbsent(token, key -> new TreeSet<>()).add(item.getId()));
+        tokens.stream()
+                .flatMap(token -> ItemSearchRanker.trigrams(token).stream())
+                .distinct()
+                .forEach(trigram -> trigramPostings.computeIfAbsent(trigram, key -> new HashSet<>())
+                        .add(item.getId()));
+        itemTokens.put(item.getId(), tokens);
+    }
+
+    @Override
+    public synchronized void remove(Long itemId) {
+        List<String> tokens = itemTokens.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+            for (String trigram : ItemSearchRanker.trigrams(token)) {
+                Set<Long> trigramIds = trigramPostings.get(trigram);
+                if (trigramIds != null) {
+                    trigramIds.remove(itemId);
+                    if (trigramIds.isEmpty()) {
+                        trigramPostings.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the ids for availability in order, {@link #ID_CHUNK_SIZE} at a time, and stops as soon as
+     * {@code limit} available items are found, so a common word never turns into one huge IN list.
+     */
+    private List<Item> findAvailable(List<Long> ids, LocalDateTime start, LocalDateTime end, long limit) {
+        List<Item> result = new ArrayList<>();
+        for (int from = 0; from < ids.size() && result.size() < limit; from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            Map<Long, Item> available = repository.findAllAvailableByIdIn(chunk, BookingStatus.BLOCKING, start, end,
+                            Pageable.unpaged()).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            chunk.stream()
+                    .map(available::get)
+                    .filter(Objects::nonNull)
+                    .limit(limit - result.size())
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    private synchronized List<Long> findSimilarIds(List<String> queryTokens, int limit) {
+        Map<Long, Integer> sharedTrigrams = new HashMap<>();
+        queryTokens.stream()
+                .flatMap(token -> ItemSearchRanker.trigrams(token).stream())
+                .distinct()
+                .map(trigram -> trigramPostings.getOrDefault(trigram, Set.of()))
+                .forEach(ids -> ids.forEach(id -> sharedTrigrams.merge(id, 1, Integer::sum)));
+        return sharedTrigrams.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized NavigableSet<Long> findIds(List<String> queryTokens) {
+        NavigableSet<Long> result = null;
+        for (String token : queryTokens) {
+            NavigableSet<Long> matches = new TreeSet<>();
+            postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                    .values()
+                    .forEach(matches::addAll);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? new TreeSet<>() : result;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemBulkRepository {
+    List<Item> insertAll(List<Item> items);
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.common.AfterCommit;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemBulkRepositoryImpl implements ItemBulkRepository {
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT = "insert into items (id, name, description, available, owner_id, request_id) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Item> insertAll(List<Item> items) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel()
+                .entityPersister(Item.class)
+                .getIdentifierGenerator();
+        List<Item> inserted = new ArrayList<>(items.size());
+        for (Item item : items) {
+            Long id = (Long) idGenerator.generate(session, item);
+            inserted.add(new Item(id, item.getName(), item.getDescription(), item.getOwner(),
+                    item.getAvailable(), item.getRequest()));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, inserted, BATCH_SIZE, (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setString(2, item.getName());
+            ps.setString(3, item.getDescription());
+            ps.setBoolean(4, item.getAvailable());
+            ps.setLong(5, item.getOwner().getId());
+            if (item.getRequest() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, item.getRequest().getId());
+            }
+        });
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        AfterCommit.run(() -> {
+            sessionFactory.getCache().evictEntityData(Item.class);
+            sessionFactory.getCache().evictQueryRegions();
+        });
+        return inserted;
+    }
+}
@@ -1,24 +1,31 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.exceptions.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService service;
+    private final int maxBulkSize;
 
     @Autowired
-    public ItemController(ItemService service) {
+    public ItemController(ItemService service, @Value("${shareit.item.bulk.max-size:1000}") int maxBulkSize) {
         this.service = service;
+        this.maxBulkSize = maxBulkSize;
     }
 
     @GetMapping
@@ -34,11 +41,24 @@ public class ItemController {
         return service.getItem(id, ownerId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<FreeIntervalDto> getAvailability(@PathVariable Long id,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return service.getAvailability(id, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam(required = false) String text,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return service.searchItems(text, from, size);
+                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                     @RequestParam(name = "ranked", defaultValue = "false") boolean ranked) {
+        if (ranked) {
+            return service.searchItemsRanked(text, start, end, from, size);
+        }
+        return service.searchItems(text, start, end, from, size);
     }
 
     @PostMapping
@@ -46,6 +66,15 @@ public class ItemController {
         return service.addItem(item, ownerId);
     }
 
+    @PostMapping("/bulk")
+    public List<ItemDto> addItems(@RequestHeader("X-Sharer-User-Id") Long ownerId, @RequestBody List<ItemDto> items) {
+        if (items.size() > maxBulkSize) {
+            throw new BadRequestException(
+                    String.format("За один запрос можно добавить не больше %d вещей", maxBulkSize));
+        }
+        return service.addItems(items, ownerId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId, @Valid @RequestBody CommentDto comment) {
         return service.addComment(itemId, userId, comment);
@@ -2,19 +2,79 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("select i from Item i " +
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemBulkRepository {
+    @Query(value = "select * from items i " +
+            "where i.available = true " +
+            "and to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', ?1) " +
+            "order by i.id", nativeQuery = true)
+    List<Item> searchFullText(String query, Pageable pageable);
+
+    @Query(value = "select * from items i " +
             "where i.available = true " +
-            "and (upper(i.name) like upper(concat('%',?1,'%')) " +
-            "or upper(i.description) like upper(concat('%',?1,'%')))")
-    List<Item> search(String text, Pageable pageable);
+            "and to_tsvector('simple', i.name || ' ' || i.description) @@ to_tsquery('simple', ?1) " +
+            "and not exists (select 1 from bookings b " +
+            "where b.item_id = i.id " +
+            "and b.status in ?2 " +
+            "and b.start_date < ?4 " +
+            "and b.end_date > ?3) " +
+            "order by i.id", nativeQuery = true)
+    List<Item> searchFullTextAvailable(String query, Collection<String> statuses,
+                                       LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @Query(value = "select * from items i " +
+            "where i.available = true " +
+            "and ?1 <% lower(i.name || ' ' || i.description) " +
+            "order by word_similarity(?1, lower(i.name || ' ' || i.description)) desc, i.id", nativeQuery = true)
+    List<Item> searchSimilar(String text, Pageable pageable);
+
+    @Query(value = "select * from items i " +
+            "where i.available = true " +
+            "and ?1 <% lower(i.name || ' ' || i.description) " +
+            "and not exists (select 1 from bookings b " +
+            "where b.item_id = i.id " +
+            "and b.status in ?2 " +
+            "and b.start_date < ?4 " +
+            "and b.end_date > ?3) " +
+            "order by word_similarity(?1, lower(i.name || ' ' || i.description)) desc, i.id", nativeQuery = true)
+    List<Item> searchSimilarAvailable(String text, Collection<String> statuses,
+                                      LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("select i from Item i where i.owner.id = ?1")
     List<Item> findAllByOwner_Id(Long ownerId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequest_Id(Long requestId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select i from Item i where i.request.id in ?1")
+    List<Item> findAllByRequest_IdIn(Collection<Long> requestIds);
+
+    @Query("select i from Item i " +
+            "where i.id in ?1 " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item.id = i.id " +
+            "and b.status in ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3) " +
+            "order by i.id")
+    List<Item> findAllAvailableByIdIn(Collection<Long> ids, Collection<BookingStatus> statuses,
+                                      LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
 }
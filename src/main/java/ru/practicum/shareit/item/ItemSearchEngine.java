@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable pageable);
+
+    List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    List<Item> findFuzzyCandidates(String text, int limit);
+
+    List<Item> findFuzzyAvailableCandidates(String text, LocalDateTime start, LocalDateTime end, int limit);
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
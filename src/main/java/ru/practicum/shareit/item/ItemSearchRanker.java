@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item;
+
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class ItemSearchRanker {
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final Comparator<ScoredItem> BY_RELEVANCE = Comparator
+            .comparingDouble(ScoredItem::getScore)
+            .thenComparing(scoredItem -> scoredItem.getItem().getId(), Comparator.reverseOrder());
+
+    private ItemSearchRanker() {
+    }
+
+    public static List<Item> topK(String text, Collection<Item> candidates, int from, int size) {
+        List<String> queryTokens = ItemSearchEngine.tokenize(text);
+        int limit = from + size;
+        PriorityQueue<ScoredItem> heap = new PriorityQueue<>(limit + 1, BY_RELEVANCE);
+        for (Item item : candidates) {
+            double score = NAME_WEIGHT * similarity(queryTokens, item.getName())
+                    + DESCRIPTION_WEIGHT * similarity(queryTokens, item.getDescription());
+            if (score <= 0) {
+                continue;
+            }
+            heap.offer(new ScoredItem(item, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<ScoredItem> ranked = new ArrayList<>(heap);
+        ranked.sort(BY_RELEVANCE.reversed());
+        return ranked.stream()
+                .skip(from)
+                .map(ScoredItem::getItem)
+                .collect(Collectors.toList());
+    }
+
+    public static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static double similarity(List<String> queryTokens, String text) {
+        if (queryTokens.isEmpty()) {
+            return 0;
+        }
+        List<String> words = ItemSearchEngine.tokenize(text);
+        double total = 0;
+        for (String token : queryTokens) {
+            double best = 0;
+            Set<String> tokenTrigrams = trigrams(token);
+            for (String word : words) {
+                best = Math.max(best, word.startsWith(token) ? 1.0 : jaccard(tokenTrigrams, trigrams(word)));
+            }
+            if (best >= MIN_SIMILARITY) {
+                total += best;
+            }
+        }
+        return total / queryTokens.size();
+    }
+
+    private static double jaccard(Set<String> first, Set<String> second) {
+        Set<String> intersection = new HashSet<>(first);
+        intersection.retainAll(second);
+        return (double) intersection.size() / (first.size() + second.size() - intersection.size());
+    }
+
+    @Data
+    private static class ScoredItem {
+        private final Item item;
+        private final double score;
+    }
+}
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(ItemDto itemDto, Long ownerId);
 
+    List<ItemDto> addItems(List<ItemDto> itemDtos, Long ownerId);
+
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
 
     ItemDto editItem(Long id, ItemDto item, Long ownerId);
@@ -17,7 +21,12 @@ public interface ItemService {
 
     List<ItemBookingDto> getAllItems(Long ownerId, Integer from, Integer size);
 
-    List<ItemDto> searchItems(String searchStr, Integer from, Integer size);
+    List<ItemDto> searchItems(String searchStr, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    List<ItemDto> searchItemsRanked(String searchStr, LocalDateTime start, LocalDateTime end,
+                                    Integer from, Integer size);
 
     void deleteItem(Long id, Long ownerId);
+
+    List<FreeIntervalDto> getAvailability(Long id, LocalDateTime from, LocalDateTime to);
 }
@@ -3,14 +3,22 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.BookingTimelineCache;
 import ru.practicum.shareit.booking.dto.BookingDTOMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.common.AfterCommit;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
 import ru.practicum.shareit.exception.exceptions.BadRequestException;
 import ru.practicum.shareit.exception.exceptions.ForbiddenException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDTOMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -21,9 +29,15 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,16 +49,22 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private static final String ERROR_NOT_FOUND = "Вещь с id=%d не найдена";
+    private static final int MAX_RANKED_CANDIDATES = 500;
     private final RequestRepository requestRepository;
+    private final ItemSearchEngine searchEngine;
+    private final Validator validator;
+    private final RequestTime requestTime;
+    private final BookingTimelineCache timelineCache;
 
     @Override
+    @Transactional
     public ItemDto addItem(ItemDto itemDto, Long ownerId) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> {
-                    String errorMessage = String.format("Пользователь с id=%d не найден", ownerId);
-                    log.error(errorMessage);
-                    throw new NotFoundException(errorMessage);
-                });
+        if (!userRepository.existsById(ownerId)) {
+            String errorMessage = String.format("Пользователь с id=%d не найден", ownerId);
+            log.error(errorMessage);
+            throw new NotFoundException(errorMessage);
+        }
+        User owner = userRepository.getReferenceById(ownerId);
         Request request = null;
         log.info(itemDto.toString());
         if (itemDto.getRequestId() != null) {
@@ -58,12 +78,60 @@ public class ItemServiceImpl implements ItemService {
                 log.info(String.format("Найден запрос для вещи с id=%d: %s", itemDto.getId(), request));
             }
         }
-        Item item = repository.saveAndFlush(ItemDTOMapper.fromItemDto(itemDto, owner, request));
+        Item item = repository.save(ItemDTOMapper.fromItemDto(itemDto, owner, request));
+        AfterCommit.run(() -> searchEngine.index(item));
         log.info(String.format("Добавление вещи: %s", item));
         return ItemDTOMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional
+    public List<ItemDto> addItems(List<ItemDto> itemDtos, Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            String errorMessage = String.format("Пользователь с id=%d не найден", ownerId);
+            log.error(errorMessage);
+            throw new NotFoundException(errorMessage);
+        }
+        for (int i = 0; i < itemDtos.size(); i++) {
+            Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDtos.get(i));
+            if (!violations.isEmpty()) {
+                String errorMessage = String.format("Некорректная вещь №%d: %s", i,
+                        violations.iterator().next().getMessage());
+                log.error(errorMessage);
+                throw new BadRequestException(errorMessage);
+            }
+        }
+
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Request> requests = requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(Request::getId, Function.identity()));
+        requestIds.stream()
+                .filter(requestId -> !requests.containsKey(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    String errorMessage = String.format("Запрос с id=%d не найден", requestId);
+                    log.error(errorMessage);
+                    throw new NotFoundException(errorMessage);
+                });
+
+        User owner = userRepository.getReferenceById(ownerId);
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> new Item(null, itemDto.getName(), itemDto.getDescription(), owner,
+                        itemDto.getAvailable(), requests.get(itemDto.getRequestId())))
+                .collect(Collectors.toList());
+        List<Item> inserted = repository.insertAll(items);
+        AfterCommit.run(() -> inserted.forEach(searchEngine::index));
+        log.info(String.format("Добавлено вещей: %d, владелец id=%d", inserted.size(), ownerId));
+        return inserted.stream()
+                .map(ItemDTOMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
     public CommentDto addComment(Long itemId, Long userId, CommentDto commentDto) {
         Item item = repository
                 .findById(itemId)
@@ -80,21 +148,23 @@ public class ItemServiceImpl implements ItemService {
                     throw new NotFoundException(errorMessage);
                 });
 
+        LocalDateTime now = requestTime.now();
         boolean isNoPastBookings = bookingRepository
-                .findAllBookingsOfItemAndOwner(itemId, userId, LocalDateTime.now()).isEmpty();
+                .findAllBookingsOfItemAndOwner(itemId, userId, now).isEmpty();
 
         if (isNoPastBookings) {
             throw new BadRequestException("Пользователь не может оставить отзыв к вещи, которую не бронировал");
         }
 
         Comment comment = commentRepository
-                .saveAndFlush(ItemDTOMapper.fromCommentDto(commentDto, item, author, LocalDateTime.now()));
+                .save(ItemDTOMapper.fromCommentDto(commentDto, item, author, now));
 
         log.info(String.format("Добавление комментария: %s", comment));
         return ItemDTOMapper.toCommentDto(comment);
     }
 
     @Override
+    @Transactional
     public ItemDto editItem(Long id, ItemDto item, Long ownerId) {
         Item existingItem = repository.findById(id)
                 .orElseThrow(() -> {
@@ -120,10 +190,13 @@ public class ItemServiceImpl implements ItemService {
 
         log.info(String.format("Изменение вещи с id=%d", id));
 
-        return ItemDTOMapper.toItemDto(repository.saveAndFlush(itemToUpdate));
+        Item updatedItem = repository.save(itemToUpdate);
+        AfterCommit.run(() -> searchEngine.index(updatedItem));
+        return ItemDTOMapper.toItemDto(updatedItem);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemBookingDto getItem(Long id, Long userId) {
         Item item = repository.findById(id)
                 .orElseThrow(() -> {
@@ -131,10 +204,11 @@ public class ItemServiceImpl implements ItemService {
                     log.error(errorMessage);
                     throw new NotFoundException(errorMessage);
                 });
-        return makeItemBooking(item, userId);
+        return makeItemBookings(List.of(item), userId).get(0);
     }
 
     @Override
+    @Transactional
     public void deleteItem(Long id, Long ownerId) {
         Item item = repository.findById(id)
                 .orElseThrow(() -> {
@@ -152,50 +226,129 @@ public class ItemServiceImpl implements ItemService {
 
         log.info(String.format("Удааление вещи с id=%d", id));
         repository.deleteById(id);
+        AfterCommit.run(() -> searchEngine.remove(id));
+        timelineCache.evict(id);
     }
 
     @Override
+    public List<FreeIntervalDto> getAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            String errorMessage = "Конец периода не может быть раньше начала";
+            log.error(errorMessage);
+            throw new BadRequestException(errorMessage);
+        }
+        LocalDateTime now = requestTime.now();
+        BookingTimeline timeline = timelineCache.get(id, now)
+                .orElseThrow(() -> {
+                    String errorMessage = String.format(ERROR_NOT_FOUND, id);
+                    log.error(errorMessage);
+                    throw new NotFoundException(errorMessage);
+                });
+
+        LocalDateTime freeFrom = from.isBefore(now) ? now : from;
+        if (!to.isAfter(freeFrom)) {
+            return new ArrayList<>();
+        }
+        return timeline.freeIntervals(now, freeFrom, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ItemBookingDto> getAllItems(Long ownerId, Integer from, Integer size) {
         CustomPageRequest pageRequest = new CustomPageRequest(from, size);
-        return repository.findAllByOwner_Id(ownerId, pageRequest).stream()
-                .map(item -> makeItemBooking(item, ownerId))
-                .collect(Collectors.toList());
+        return makeItemBookings(repository.findAllByOwner_Id(ownerId, pageRequest), ownerId);
     }
 
     @Override
-    public List<ItemDto> searchItems(String searchStr, Integer from, Integer to) {
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItems(String searchStr, LocalDateTime start, LocalDateTime end,
+                                     Integer from, Integer to) {
         CustomPageRequest pageRequest = new CustomPageRequest(from, to);
+        boolean byPeriod = checkPeriod(start, end);
         if (searchStr == null || searchStr.isEmpty()) return new ArrayList<>();
-        return repository.search(searchStr, pageRequest).stream()
+        List<Item> items = byPeriod
+                ? searchEngine.searchAvailable(searchStr, start, end, pageRequest)
+                : searchEngine.search(searchStr, pageRequest);
+        return items.stream()
                 .map(ItemDTOMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
-    private ItemBookingDto makeItemBooking(Item item, Long userId) {
-        List<Booking> itemBookings = bookingRepository.findAllByItem_Id(item.getId());
-
-        List<CommentDto> comments = commentRepository.findAllByItem_Id(item.getId()).stream()
-                .map(ItemDTOMapper::toCommentDto)
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemsRanked(String searchStr, LocalDateTime start, LocalDateTime end,
+                                           Integer from, Integer size) {
+        boolean byPeriod = checkPeriod(start, end);
+        if (from + size > MAX_RANKED_CANDIDATES) {
+            String errorMessage = String.format("Ранжированный поиск возвращает не больше %d вещей",
+                    MAX_RANKED_CANDIDATES);
+            log.error(errorMessage);
+            throw new BadRequestException(errorMessage);
+        }
+        if (searchStr == null || searchStr.isBlank()) return new ArrayList<>();
+        List<Item> candidates = byPeriod
+                ? searchEngine.findFuzzyAvailableCandidates(searchStr, start, end, MAX_RANKED_CANDIDATES)
+                : searchEngine.findFuzzyCandidates(searchStr, MAX_RANKED_CANDIDATES);
+        return ItemSearchRanker.topK(searchStr, candidates, from, size).stream()
+                .map(ItemDTOMapper::toItemDto)
                 .collect(Collectors.toList());
+    }
 
+    private boolean checkPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return false;
+        }
+        String errorMessage = null;
+        if (start == null || end == null) {
+            errorMessage = "Необходимо указать начало и конец периода";
+        } else if (end.isBefore(start)) {
+            errorMessage = "Конец периода не может быть раньше начала";
+        }
+        if (errorMessage != null) {
+            log.error(errorMessage);
+            throw new BadRequestException(errorMessage);
+        }
+        return true;
+    }
 
-        Booking lastBooking = itemBookings.stream()
-                .filter(el -> el.getEnd().isBefore(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
+    private List<ItemBookingDto> makeItemBookings(List<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        Booking nextBooking = itemBookings.stream()
-                .filter(el -> el.getEnd().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Set<Long> ownedItemIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toSet());
 
-        boolean isItemsOwner = item.getOwner().getId().equals(userId);
+        LocalDateTime now = requestTime.now();
+        Map<Long, BookingItemDto> lastBookings = ownedItemIds.isEmpty()
+                ? Map.of()
+                : groupByItem(bookingRepository.findLastBookings(ownedItemIds, now, BookingStatus.APPROVED));
+        Map<Long, BookingItemDto> nextBookings = ownedItemIds.isEmpty()
+                ? Map.of()
+                : groupByItem(bookingRepository.findNextBookings(ownedItemIds, now, BookingStatus.APPROVED));
 
-        return ItemDTOMapper.toItemBookingDto(
-                item,
-                isItemsOwner ? BookingDTOMapper.toBookingItemDto(lastBooking) : null,
-                isItemsOwner ? BookingDTOMapper.toBookingItemDto(nextBooking) : null,
-                comments
-        );
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findAllByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(ItemDTOMapper::toCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> ItemDTOMapper.toItemBookingDto(
+                        item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        commentsByItem.getOrDefault(item.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, BookingItemDto> groupByItem(List<BookingShortDto> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(BookingShortDto::getItemId,
+                        BookingDTOMapper::toBookingItemDto,
+                        (first, second) -> first.getId() < second.getId() ? first : second));
     }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.BookingState;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingTagsContributor implements WebMvcTagsContributor {
+    private static final String NONE = "none";
+    private static final Map<String, String> LIST_ROLES = Map.of(
+            "/bookings", "booker",
+            "/bookings/owner", "owner");
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String role = pattern == null ? null : LIST_ROLES.get(pattern.toString());
+        if (role == null || !HttpMethod.GET.matches(request.getMethod())) {
+            return Tags.of("state", NONE, "role", NONE);
+        }
+        return Tags.of("state", state(request.getParameter("state")), "role", role);
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+
+    private String state(String state) {
+        if (state == null || state.isBlank()) {
+            return BookingState.ALL.name();
+        }
+        Set<BookingState> states = EnumSet.noneOf(BookingState.class);
+        for (String value : state.split(",")) {
+            Optional<BookingState> known = Arrays.stream(BookingState.values())
+                    .filter(bookingState -> bookingState.name().equals(value.trim()))
+                    .findFirst();
+            if (known.isEmpty()) {
+                return "UNKNOWN";
+            }
+            states.add(known.get());
+        }
+        return states.stream()
+                .map(Enum::name)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry registry) {
+        return new FilterRegistrationBean<>(new QueryCountFilter(registry));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Component
+public class RepositoryRowCountPostProcessor implements BeanPostProcessor {
+    public static final String METRIC_NAME = "spring.data.repository.rows";
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public RepositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                            proxyFactory.addAdvice(rowCounter(information.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor rowCounter(Class<?> repository) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            Integer rows = rows(result);
+            if (rows != null) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("Rows returned by a repository method")
+                        .baseUnit("rows")
+                        .tag("repository", repository.getSimpleName())
+                        .tag("method", invocation.getMethod().getName())
+                        .register(registry.getObject())
+                        .record(rows);
+            }
+            return result;
+        };
+    }
+
+    private Integer rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return null;
+    }
+}
@@ -26,8 +26,10 @@ public class RequestController {
     }
 
     @GetMapping
-    public List<RequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return service.getOwnersRequests(userId);
+    public List<RequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                           @Positive @RequestParam(name = "size", required = false) Integer size) {
+        return service.getOwnersRequests(userId, from, size);
     }
 
     @GetMapping("/all")
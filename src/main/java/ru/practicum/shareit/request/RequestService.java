@@ -8,7 +8,7 @@ import java.util.List;
 public interface RequestService {
     RequestDto addRequest(CreateRequestDto requestDto, Long userId);
 
-    List<RequestDto> getOwnersRequests(Long userId);
+    List<RequestDto> getOwnersRequests(Long userId, Integer from, Integer size);
 
     List<RequestDto> getAllRequests(Integer from, Integer to, Long userId);
 
@@ -2,9 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -15,9 +18,9 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,55 +30,40 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final RequestTime requestTime;
 
     @Override
+    @Transactional
     public RequestDto addRequest(CreateRequestDto requestDto, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    String errorMessage = String.format("Пользователь с id=%d не найден", userId);
-                    log.error(errorMessage);
-                    throw new NotFoundException(errorMessage);
-                });
+        checkUserExists(userId);
+        User user = userRepository.getReferenceById(userId);
 
-        Request request = requestRepository.saveAndFlush(
-                RequestDTOMapper.fromCreateRequestDto(requestDto, user, new ArrayList<>(), LocalDateTime.now()));
-        List<Item> items = itemRepository.findAllByRequest_Id(request.getId());
+        Request request = requestRepository.save(
+                RequestDTOMapper.fromCreateRequestDto(requestDto, user, new ArrayList<>(), requestTime.now()));
         log.info(String.format("Добавление запроса: %s", requestDto));
-        return RequestDTOMapper.toRequestDto(request, items);
+        return RequestDTOMapper.toRequestDto(request, List.of());
     }
 
     @Override
-    public List<RequestDto> getOwnersRequests(Long userId) {
-        Sort sort = Sort.by("created").descending();
-        if (userRepository.findById(userId).isEmpty()) {
-            String errorMessage = String.format("Пользователь с id=%d не найден", userId);
-            log.error(errorMessage);
-            throw new NotFoundException(errorMessage);
-        }
-        return requestRepository
-                .findAllByRequestor_Id(userId, sort)
-                .stream()
-                .map(this::getRequestDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<RequestDto> getOwnersRequests(Long userId, Integer from, Integer size) {
+        Pageable pageable = size == null ? Pageable.unpaged() : new CustomPageRequest(from, size);
+        checkUserExists(userId);
+        return toRequestDtos(requestRepository.findAllByRequestor_Id(userId, pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RequestDto> getAllRequests(Integer from, Integer to, Long userId) {
         CustomPageRequest pageRequest = new CustomPageRequest(from, to, Sort.by("created").descending());
 
-        return requestRepository.findAllByRequestor_IdNot(userId, pageRequest)
-                .stream()
-                .map(this::getRequestDto)
-                .collect(Collectors.toList());
+        return toRequestDtos(requestRepository.findAllByRequestor_IdNot(userId, pageRequest));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RequestDto getRequest(Long id, Long userId) {
-        if (userRepository.findById(userId).isEmpty()) {
-            String errorMessage = String.format("Пользователь с id=%d не найден", userId);
-            log.error(errorMessage);
-            throw new NotFoundException(errorMessage);
-        }
+        checkUserExists(userId);
         Request request = requestRepository.findById(id)
                 .orElseThrow(() -> {
                     String errorMessage = String.format("Запрос с id=%d не найден", id);
@@ -85,8 +73,31 @@ public class RequestServiceImpl implements RequestService {
         return getRequestDto(request);
     }
 
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            String errorMessage = String.format("Пользователь с id=%d не найден", userId);
+            log.error(errorMessage);
+            throw new NotFoundException(errorMessage);
+        }
+    }
+
     private RequestDto getRequestDto(Request request) {
         List<Item> items = itemRepository.findAllByRequest_Id(request.getId());
         return RequestDTOMapper.toRequestDto(request, items);
     }
+
+    private List<RequestDto> toRequestDtos(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(Request::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return requests.stream()
+                .map(request -> RequestDTOMapper.toRequestDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
@@ -1,7 +1,13 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    String USER_EXISTS_CACHE = "userExists";
+
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS_CACHE, key = "#p0", unless = "!#result")
+    boolean existsById(Long id);
 }
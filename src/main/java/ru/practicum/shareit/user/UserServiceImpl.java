@@ -2,7 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.AfterCommit;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDTOMapper;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,20 +19,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository, CacheManager cacheManager) {
         this.repository = repository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Transactional
     public UserDto addUser(UserDto userDto) {
-        User user = repository.saveAndFlush(UserDTOMapper.fromUserDto(userDto));
+        User user = repository.save(UserDTOMapper.fromUserDto(userDto));
         log.info(String.format("Добавление пользователя: %s", user));
         return UserDTOMapper.toUserDto(user);
     }
 
     @Override
+    @Transactional
     public UserDto editUser(UserDto user, Long id) {
         User existingUser = repository.findById(id).orElseThrow(() -> {
             String errorMessage = String.format("Пользователь с id=%d не найден", id);
@@ -42,10 +50,11 @@ public class UserServiceImpl implements UserService {
                 user.getEmail() == null ? existingUser.getEmail() : user.getEmail()
         );
         log.info(String.format("Изменение пользователя: %s", userToUpdate));
-        return UserDTOMapper.toUserDto(repository.saveAndFlush(userToUpdate));
+        return UserDTOMapper.toUserDto(repository.save(userToUpdate));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUser(Long id) {
         User user = repository.findById(id).orElseThrow(() -> {
             String errorMessage = String.format("Пользователь с id=%d не найден", id);
@@ -56,6 +65,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return repository.findAll().stream()
                 .map(UserDTOMapper::toUserDto)
@@ -63,8 +73,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         log.info(String.format("Удаление пользователя с id=%d", id));
         repository.deleteById(id);
+        AfterCommit.run(() -> {
+            Cache userExists = cacheManager.getCache(UserRepository.USER_EXISTS_CACHE);
+            if (userExists != null) {
+                userExists.evict(id);
+            }
+        });
     }
 }
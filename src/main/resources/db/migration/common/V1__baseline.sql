@@ -50,6 +50,3 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_items_id FOREIGN KEY (item_id) REFERENCES items (id) on DELETE CASCADE,
     CONSTRAINT  fk_users_author_id FOREIGN KEY (author_id) REFERENCES users(id)
 );
-
-
-
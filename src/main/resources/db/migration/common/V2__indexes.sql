@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id_end_date ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_date_end_date ON bookings (item_id, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_id_created ON requests (requestor_id, created);
@@ -0,0 +1,31 @@
+-- H2 has no procedural blocks; DROP IDENTITY is a no-op on a column that is no longer an identity.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq RESTART WITH (SELECT greatest(coalesce(max(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'USERS_SEQ')) FROM users);
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq RESTART WITH (SELECT greatest(coalesce(max(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'REQUESTS_SEQ')) FROM requests);
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq RESTART WITH (SELECT greatest(coalesce(max(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'ITEMS_SEQ')) FROM items);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT greatest(coalesce(max(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'BOOKINGS_SEQ')) FROM bookings);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT greatest(coalesce(max(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'COMMENTS_SEQ')) FROM comments);
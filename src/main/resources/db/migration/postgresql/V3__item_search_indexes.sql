@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS idx_items_search ON items
+    USING GIN (to_tsvector('simple', name || ' ' || description));
+
+-- Needs the pg_trgm extension, which the application role usually may not create (see README).
+CREATE INDEX IF NOT EXISTS idx_items_search_trgm ON items
+    USING GIN (lower(name || ' ' || description) gin_trgm_ops);
@@ -0,0 +1,28 @@
+-- Databases created before Flyway may already have been switched to sequences by the old start-up script,
+-- so every step checks the catalog first and only takes the table lock when something is left to change.
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'requests', 'items', 'bookings', 'comments'] LOOP
+        seq := t || '_seq';
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', seq);
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t AND column_name = 'id'
+                     AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        END IF;
+
+        IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = t AND column_name = 'id'
+                         AND column_default = format('nextval(''%s''::regclass)', seq)) THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, seq);
+        END IF;
+
+        -- Never moves a sequence back: blocks already handed out by running nodes stay valid.
+        EXECUTE format('SELECT setval(%L, greatest((SELECT coalesce(max(id), 0) + 1 FROM %I), '
+                       '(SELECT last_value FROM %I)))', seq, t, seq);
+    END LOOP;
+END $$;
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.BenchmarkContext;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingInsertBenchmark {
+    private static final int BOOKINGS_PER_TRANSACTION = 500;
+    private static final long ITEM_ID = 1L;
+    private static final long BOOKER_ID = 1000L;
+
+    @Param({"mem", "tcp"})
+    private String transport;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String databaseName = "booking-insert-benchmark";
+        context = "tcp".equals(transport)
+                ? BenchmarkContext.start(databaseName, WebApplicationType.NONE, 1, BenchmarkContext.DEFAULT_SEED,
+                        BenchmarkContext.tcpDatabase(databaseName))
+                : BenchmarkContext.start(databaseName);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer insertBookingsWithComments() {
+        return transactionTemplate.execute(status -> {
+            Item item = entityManager.getReference(Item.class, ITEM_ID);
+            User booker = entityManager.getReference(User.class, BOOKER_ID);
+            LocalDateTime start = LocalDateTime.now().minusYears(1);
+            for (int i = 0; i < BOOKINGS_PER_TRANSACTION; i++) {
+                entityManager.persist(new Booking(null, item, booker, start.plusHours(i), start.plusHours(i + 1),
+                        BookingStatus.APPROVED));
+                entityManager.persist(new Comment(null, "отзыв " + i, item, booker, start.plusHours(i + 1)));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return BOOKINGS_PER_TRANSACTION;
+        });
+    }
+}
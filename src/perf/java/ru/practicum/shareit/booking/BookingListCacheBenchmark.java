@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.common.BenchmarkContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BookingListCacheBenchmark {
+    private static final int POLLING_USERS = 200;
+
+    @Param({"0", "1m"})
+    private String bucket;
+
+    @Param({"CURRENT", "FUTURE"})
+    private String state;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingFilterDto filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("booking-list-cache-benchmark-" + bucket, WebApplicationType.NONE, 1,
+                BenchmarkContext.DEFAULT_SEED, "shareit.booking.list-cache.bucket=" + bucket);
+        bookingService = context.getBean(BookingService.class);
+        filter = new BookingFilterDto(state, null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> pollOwnerBookings() {
+        long userId = 1 + ThreadLocalRandom.current().nextInt(POLLING_USERS);
+        return bookingService.getAllBookings(filter, userId, true, 0, 20);
+    }
+}
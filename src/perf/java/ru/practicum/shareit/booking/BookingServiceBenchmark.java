@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.common.BenchmarkContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "FUTURE,WAITING"})
+    private String state;
+
+    @Param({"false", "true"})
+    private boolean byOwner;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private LocalDateTime overlapStart;
+    private BookingFilterDto filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("booking-benchmark", WebApplicationType.NONE, 1, BenchmarkContext.DEFAULT_SEED,
+                "shareit.booking.list-cache.bucket=0");
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        overlapStart = LocalDateTime.now().plusDays(1);
+        filter = new BookingFilterDto(state, null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookings() {
+        return bookingService.getAllBookings(filter, 1L, byOwner, 0, 20);
+    }
+
+    @Benchmark
+    public boolean existsOverlappedBooking() {
+        return bookingRepository.existsOverlappedBooking(1L, BookingStatus.BLOCKING, overlapStart, overlapStart.plusDays(1));
+    }
+}
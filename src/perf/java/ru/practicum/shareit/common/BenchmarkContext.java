@@ -0,0 +1,76 @@
+package ru.practicum.shareit.common;
+
+import org.h2.tools.Server;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.InvertedIndexItemSearchEngine;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BenchmarkContext {
+    public static final long DEFAULT_SEED = 42;
+    private static final String DATASOURCE_URL = "spring.datasource.url";
+
+    private static Server tcpServer;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, WebApplicationType.NONE, 1, DEFAULT_SEED);
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, WebApplicationType webApplicationType,
+                                                       int scale, long seed, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + DATASOURCE_URL + "="))) {
+            args.add("--" + DATASOURCE_URL + "=jdbc:h2:mem:" + databaseName);
+        }
+        Clock clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType)
+                .profiles("test")
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton("clock", clock))
+                .run(args.toArray(new String[0]));
+        new DatasetGenerator(context.getBean(JdbcTemplate.class), scale, seed).generate(LocalDateTime.now(clock));
+        context.getBeansOfType(InvertedIndexItemSearchEngine.class).values()
+                .forEach(InvertedIndexItemSearchEngine::rebuild);
+        return context;
+    }
+
+    public static synchronized String tcpDatabase(String databaseName) {
+        if (tcpServer == null) {
+            try {
+                tcpServer = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return String.format("%s=jdbc:h2:tcp://localhost:%d/mem:%s", DATASOURCE_URL, tcpServer.getPort(), databaseName);
+    }
+
+    public static String[] secondLevelCache(boolean enabled) {
+        return new String[]{
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + enabled,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + enabled
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+@Getter
+public class DatasetGenerator {
+    public static final int ITEMS_PER_USER = 10;
+    private static final int BATCH_SIZE = 1_000;
+    private static final double POPULARITY_EXPONENT = 1.1;
+    private static final String[] ITEM_NAMES = {
+        "Отвертка", "Дрель", "Перфоратор", "Лестница", "Палатка",
+        "Велосипед", "Самокат", "Пила", "Шуруповерт", "Рюкзак"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+    private final int users;
+    private final int items;
+    private final int requests;
+    private final int bookings;
+    private final int comments;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, int scale, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+        this.users = 1_000 * scale;
+        this.items = users * ITEMS_PER_USER;
+        this.requests = 2 * users;
+        this.bookings = 10 * items;
+        this.comments = 2 * items;
+    }
+
+    public void generate(LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ZipfDistribution itemPopularity = new ZipfDistribution(items, POPULARITY_EXPONENT);
+        LocalDateTime from = now.minusDays(180);
+
+        batch("insert into users (id, name, email) values (?, ?, ?)",
+                users, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "user" + id);
+                    ps.setString(3, "user" + id + "@mail.ru");
+                });
+        SplittableRandom requestRandom = random.split();
+        batch("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                requests, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "нужна вещь: " + ITEM_NAMES[requestRandom.nextInt(ITEM_NAMES.length)]);
+                    ps.setLong(3, requestRandom.nextInt(users) + 1);
+                    ps.setObject(4, from.plusMinutes(requestRandom.nextInt(180 * 24 * 60)));
+                });
+        SplittableRandom itemRandom = random.split();
+        batch("insert into items (id, name, description, available, owner_id, request_id) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                items, (ps, id) -> {
+                    String name = ITEM_NAMES[itemRandom.nextInt(ITEM_NAMES.length)];
+                    ps.setLong(1, id);
+                    ps.setString(2, name + " " + id);
+                    ps.setString(3, "описание: " + name.toLowerCase() + " "
+                            + ITEM_NAMES[itemRandom.nextInt(ITEM_NAMES.length)].toLowerCase());
+                    ps.setBoolean(4, itemRandom.nextInt(10) != 0);
+                    ps.setLong(5, ownerOf(id));
+                    if (itemRandom.nextInt(5) == 0) {
+                        ps.setLong(6, itemRandom.nextInt(requests) + 1);
+                    } else {
+                        ps.setObject(6, null);
+                    }
+                });
+        SplittableRandom bookingRandom = random.split();
+        batch("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                bookings, (ps, id) -> {
+                    int itemId = itemPopularity.sample(bookingRandom);
+                    LocalDateTime start = from.plusHours(bookingRandom.nextInt(270 * 24));
+                    ps.setLong(1, id);
+                    ps.setObject(2, start);
+                    ps.setObject(3, start.plusHours(1 + bookingRandom.nextInt(7 * 24)));
+                    ps.setLong(4, itemId);
+                    ps.setLong(5, randomUserExcept(bookingRandom, ownerOf(itemId)));
+                    ps.setString(6, randomStatus(bookingRandom).name());
+                });
+        SplittableRandom commentRandom = random.split();
+        batch("insert into comments (id, text, item_id, author_id, created_date) values (?, ?, ?, ?, ?)",
+                comments, (ps, id) -> {
+                    int itemId = itemPopularity.sample(commentRandom);
+                    ps.setLong(1, id);
+                    ps.setString(2, "отзыв " + id);
+                    ps.setLong(3, itemId);
+                    ps.setLong(4, randomUserExcept(commentRandom, ownerOf(itemId)));
+                    ps.setObject(5, from.plusMinutes(commentRandom.nextInt(180 * 24 * 60)));
+                });
+
+        restartSequence(User.ID_SEQUENCE, users);
+        restartSequence(Request.ID_SEQUENCE, requests);
+        restartSequence(Item.ID_SEQUENCE, items);
+        restartSequence(Booking.ID_SEQUENCE, bookings);
+        restartSequence(Comment.ID_SEQUENCE, comments);
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) / ITEMS_PER_USER + 1;
+    }
+
+    private long randomUserExcept(SplittableRandom random, long userId) {
+        long candidate = random.nextInt(users - 1) + 1;
+        return candidate >= userId ? candidate + 1 : candidate;
+    }
+
+    private BookingStatus randomStatus(SplittableRandom random) {
+        int value = random.nextInt(100);
+        if (value < 60) {
+            return BookingStatus.APPROVED;
+        }
+        if (value < 80) {
+            return BookingStatus.WAITING;
+        }
+        return value < 95 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+    }
+
+    private void batch(String sql, int count, RowWriter writer) {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            ids.add(id);
+            if (ids.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, ids, BATCH_SIZE, writer::write);
+                ids.clear();
+            }
+        }
+    }
+
+    private void restartSequence(String sequence, int count) {
+        jdbcTemplate.execute(String.format("alter sequence %s restart with %d", sequence, count + 1));
+    }
+
+    private interface RowWriter {
+        void write(PreparedStatement ps, Long id) throws SQLException;
+    }
+}
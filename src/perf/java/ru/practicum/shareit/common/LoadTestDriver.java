@@ -0,0 +1,258 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class LoadTestDriver {
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final String[] SEARCH_WORDS = {"дрель", "отвертка", "пила", "палатка", "велосипед"};
+    private static final String[] MISSPELLED_WORDS = {"дрэль", "атвертка", "пило", "полатка", "велосепед"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final int users;
+    private final int items;
+    private final ZipfDistribution itemPopularity;
+    private final List<Operation> operations = new ArrayList<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private int totalWeight;
+
+    public LoadTestDriver(String baseUrl, int scale) {
+        this.baseUrl = baseUrl;
+        this.users = 1_000 * scale;
+        this.items = users * DatasetGenerator.ITEMS_PER_USER;
+        this.itemPopularity = new ZipfDistribution(items, 1.1);
+
+        add("GET /bookings", 20, random -> get("/bookings?state=" + state(random) + "&from=0&size=20", random));
+        add("GET /bookings/owner", 15,
+                random -> get("/bookings/owner?state=" + state(random) + "&from=0&size=20", random));
+        add("GET /items", 15, random -> get("/items?from=0&size=10", random));
+        add("GET /items/{id}", 20, random -> get("/items/" + itemPopularity.sample(random), random));
+        add("GET /items/search", 10,
+                random -> get("/items/search?text=" + encode(pick(random, SEARCH_WORDS)) + "&from=0&size=20", random));
+        add("GET /items/search?ranked", 5,
+                random -> get("/items/search?ranked=true&text=" + encode(pick(random, MISSPELLED_WORDS)), random));
+        add("GET /requests", 5, random -> get("/requests?from=0&size=20", random));
+        add("GET /requests/all", 5, random -> get("/requests/all?from=0&size=20", random));
+        add("POST /bookings", 5, this::createBooking);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("load.threads", 8);
+        int warmupSeconds = Integer.getInteger("load.warmup", 5);
+        int durationSeconds = Integer.getInteger("load.duration", 30);
+        int scale = Integer.getInteger("load.scale", 1);
+        long seed = Long.getLong("load.seed", BenchmarkContext.DEFAULT_SEED);
+        String result = System.getProperty("load.result", "target/load-test-result.json");
+        String baseUrl = System.getProperty("load.baseUrl");
+
+        ConfigurableApplicationContext context = null;
+        if (baseUrl == null) {
+            context = BenchmarkContext.start("load-test", WebApplicationType.SERVLET, scale, seed,
+                    BenchmarkContext.secondLevelCache(true));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadTestDriver driver = new LoadTestDriver(baseUrl, scale);
+            List<Map<String, Object>> report = driver.run(threads, warmupSeconds, durationSeconds, seed);
+            driver.print(report);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(result), report);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    public List<Map<String, Object>> run(int threads, int warmupSeconds, int durationSeconds, long seed)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        SplittableRandom seedRandom = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = seedRandom.split();
+            executor.submit(() -> work(random, measureFrom, stopAt));
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+
+        List<Map<String, Object>> report = new ArrayList<>();
+        stats.forEach((name, endpointStats) -> report.add(endpointStats.summary(name, durationSeconds)));
+        return report;
+    }
+
+    private void work(SplittableRandom random, long measureFrom, long stopAt) {
+        while (System.nanoTime() < stopAt) {
+            Operation operation = nextOperation(random);
+            HttpRequest request = operation.getRequest().apply(random);
+            long start = System.nanoTime();
+            Outcome outcome;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                outcome = Outcome.of(response.statusCode());
+            } catch (IOException e) {
+                outcome = Outcome.SERVER_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= measureFrom) {
+                stats.get(operation.getName()).record(System.nanoTime() - start, outcome);
+            }
+        }
+    }
+
+    private void print(List<Map<String, Object>> report) {
+        System.out.printf("%-28s %10s %8s %8s %12s %10s %10s%n", "endpoint", "requests", "4xx", "5xx", "req/s",
+                "p50, ms", "p99, ms");
+        for (Map<String, Object> row : report) {
+            System.out.printf("%-28s %10d %8d %8d %12.1f %10.2f %10.2f%n", row.get("endpoint"), row.get("requests"),
+                    row.get("clientErrors"), row.get("serverErrors"), row.get("throughput"), row.get("p50Ms"),
+                    row.get("p99Ms"));
+        }
+    }
+
+    private void add(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+        operations.add(new Operation(name, weight, request));
+        stats.put(name, new Stats());
+        totalWeight += weight;
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.getWeight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private HttpRequest get(String path, SplittableRandom random) {
+        return request(path, random.nextInt(users) + 1L).GET().build();
+    }
+
+    private HttpRequest createBooking(SplittableRandom random) {
+        long itemId = itemPopularity.sample(random);
+        long owner = (itemId - 1) / DatasetGenerator.ITEMS_PER_USER + 1;
+        long booker = owner % users + 1;
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(365)).withNano(0);
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                itemId, start, start.plusDays(1 + random.nextInt(7)));
+        return request("/bookings", booker)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("X-Sharer-User-Id", String.valueOf(userId));
+    }
+
+    private static String state(SplittableRandom random) {
+        return pick(random, STATES);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Operation {
+        private final String name;
+        private final int weight;
+        private final Function<SplittableRandom, HttpRequest> request;
+    }
+
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR;
+
+        static Outcome of(int statusCode) {
+            if (statusCode >= 500) {
+                return SERVER_ERROR;
+            }
+            return statusCode >= 400 ? CLIENT_ERROR : SUCCESS;
+        }
+    }
+
+    /**
+     * Percentiles cover successful responses only: a rejected booking (400) or a missing item (404) returns
+     * early and would make the endpoint look faster than it is.
+     */
+    private static class Stats {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+
+        void record(long nanos, Outcome outcome) {
+            requests.incrementAndGet();
+            if (outcome == Outcome.SUCCESS) {
+                latencies.add(nanos);
+            } else if (outcome == Outcome.CLIENT_ERROR) {
+                clientErrors.incrementAndGet();
+            } else {
+                serverErrors.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> summary(String name, int durationSeconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("endpoint", name);
+            summary.put("requests", requests.get());
+            summary.put("successes", sorted.length);
+            summary.put("clientErrors", clientErrors.get());
+            summary.put("serverErrors", serverErrors.get());
+            summary.put("throughput", (double) requests.get() / durationSeconds);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDTOMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDTOMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestDTOMapper;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.dto.UserDTOMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Booking booking;
+    private Item item;
+    private Comment comment;
+    private Request request;
+    private List<Item> requestItems;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "user", "user@mail.ru");
+        request = new Request(1L, "нужна дрель", user, now);
+        item = new Item(1L, "Дрель", "ударная дрель", new User(2L, "owner", "owner@mail.ru"), true, request);
+        booking = new Booking(1L, item, user, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        comment = new Comment(1L, "отличная дрель", item, user, now);
+        requestItems = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            requestItems.add(new Item(i, "Дрель " + i, "описание " + i, item.getOwner(), true, request));
+        }
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingDTOMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ConfirmedBookingDto toConfirmedBookingDto() {
+        return BookingDTOMapper.toConfirmedBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemDTOMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public CommentDto toCommentDto() {
+        return ItemDTOMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public RequestDto toRequestDto() {
+        return RequestDTOMapper.toRequestDto(request, requestItems);
+    }
+
+    @Benchmark
+    public UserDto toUserDto() {
+        return UserDTOMapper.toUserDto(user);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.common;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
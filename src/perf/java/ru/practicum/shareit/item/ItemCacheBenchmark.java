@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.common.BenchmarkContext;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class ItemCacheBenchmark {
+    private static final int FIRST_ITEM_ID = 101;
+    private static final int ITEMS = 1000;
+    private static final long READER_ID = 1000L;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("item-cache-benchmark-" + secondLevelCache, WebApplicationType.NONE,
+                1, BenchmarkContext.DEFAULT_SEED, BenchmarkContext.secondLevelCache(secondLevelCache));
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemBookingDto getItem() {
+        cursor = (cursor + 1) % ITEMS;
+        return itemService.getItem((long) FIRST_ITEM_ID + cursor, READER_ID);
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        cursor = (cursor + 1) % ITEMS;
+        return itemRepository.findById((long) FIRST_ITEM_ID + cursor);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.common.BenchmarkContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemImportBenchmark {
+    private static final int CATALOGUE_SIZE = 1000;
+    private static final long OWNER_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private List<ItemDto> catalogue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("item-import-benchmark");
+        itemService = context.getBean(ItemService.class);
+        catalogue = new ArrayList<>(CATALOGUE_SIZE);
+        for (int i = 0; i < CATALOGUE_SIZE; i++) {
+            catalogue.add(new ItemDto(null, "дрель " + i, "ударная дрель из каталога", true, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> importBulk() {
+        return itemService.addItems(catalogue, OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDto> importOneByOne() {
+        List<ItemDto> created = new ArrayList<>(CATALOGUE_SIZE);
+        for (ItemDto itemDto : catalogue) {
+            created.add(itemService.addItem(itemDto, OWNER_ID));
+        }
+        return created;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.common.BenchmarkContext;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("item-benchmark");
+        itemService = context.getBean(ItemService.class);
+        now = LocalDateTime.now(context.getBean(Clock.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemBookingDto> getAllItemsOfOwner() {
+        return itemService.getAllItems(1L, 0, 10);
+    }
+
+    @Benchmark
+    public ItemBookingDto getItemByOwner() {
+        return itemService.getItem(1L, 1L);
+    }
+
+    @Benchmark
+    public List<FreeIntervalDto> getAvailability() {
+        return itemService.getAvailability(1L, now, now.plusDays(90));
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems("дрель", null, null, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchAvailableItems() {
+        return itemService.searchItems("дрель", now.plusDays(7), now.plusDays(14), 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsRanked() {
+        return itemService.searchItemsRanked("дрэль", null, null, 0, 20);
+    }
+}
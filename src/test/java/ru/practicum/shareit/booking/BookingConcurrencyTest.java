@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.exceptions.BadRequestException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-concurrency")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void concurrentBookingsOfOneItemNeverOverlap() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "дрель", "дрель", owner, true, null));
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(thread);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDateTime start = base.plusHours(random.nextInt(48));
+                    LocalDateTime end = start.plusHours(1 + random.nextInt(6));
+                    try {
+                        bookingService.addBooking(new CreateBookingDto(null, item.getId(), start, end), booker.getId());
+                        created.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        // пересечение с уже существующим бронированием
+                    }
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .collect(Collectors.toList());
+
+        assertTrue(created.get() > 0);
+        assertEquals(created.get(), bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            for (int j = i + 1; j < bookings.size(); j++) {
+                Booking first = bookings.get(i);
+                Booking second = bookings.get(j);
+                assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                        String.format("Бронирования %d и %d пересекаются", first.getId(), second.getId()));
+            }
+        }
+    }
+}
@@ -9,20 +9,33 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookedItemDto;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -53,16 +66,16 @@ class BookingControllerTest {
             end
     );
 
-    private final BookingDto bookingDto = new BookingDto(1L, item,
+    private final BookingDto bookingDto = new BookingDto(1L, item.getId(), item.getName(),
             start,
             end,
-            user,
+            user.getId(),
             BookingStatus.WAITING);
 
     private final ConfirmedBookingDto confirmedBookingDto = new ConfirmedBookingDto(1L,
             BookingStatus.APPROVED,
-            user,
-            item,
+            new BookerDto(user.getId()),
+            new BookedItemDto(item.getId(), item.getName()),
             start,
             end);
 
@@ -115,7 +128,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookings() throws Exception {
-        Mockito.when(bookingService.getAllBookings("ALL", 1L, false, 0, 10))
+        Mockito.when(bookingService.getAllBookings(new BookingFilterDto("ALL", null, null, null), 1L, false, 0, 10))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings?state=ALL&from=0&to=10")
@@ -132,7 +145,7 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByOwner() throws Exception {
-        Mockito.when(bookingService.getAllBookings("ALL", 2L, true, 0, 10))
+        Mockito.when(bookingService.getAllBookings(new BookingFilterDto("ALL", null, null, null), 2L, true, 0, 10))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/owner?state=ALL&from=0&to=10")
@@ -146,4 +159,78 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(1)))
                 .andExpect(jsonPath("$[0].item.id", is(1)));
     }
+
+    @Test
+    void getBookingsByOwnerWithFilters() throws Exception {
+        BookingFilterDto filter = new BookingFilterDto("FUTURE,WAITING", 1L,
+                LocalDateTime.of(2022, 12, 1, 0, 0), LocalDateTime.of(2022, 12, 31, 0, 0));
+        Mockito.when(bookingService.getAllBookings(filter, 2L, true, 0, 10))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner?state=FUTURE,WAITING&itemId=1" +
+                                "&rangeStart=2022-12-01T00:00:00&rangeEnd=2022-12-31T00:00:00")
+                        .header("X-Sharer-User-Id", 2)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void getBookingsByCursor() throws Exception {
+        Mockito.when(bookingService.getBookingsPage(new BookingFilterDto("ALL", null, null, null), 1L, false, "", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
+        Mockito.when(bookingService.getBookingsPage(new BookingFilterDto("ALL", null, null, null), 2L, true, "next", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
+
+        mockMvc.perform(get("/bookings?state=ALL&size=1&cursor=")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        mockMvc.perform(get("/bookings/owner?state=ALL&size=1&cursor=next")
+                        .header("X-Sharer-User-Id", 2)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void exportBookingsByOwner() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDto);
+            consumer.accept(bookingDto);
+            return null;
+        }).when(bookingService).exportBookings(Mockito.eq(2L), Mockito.eq(true), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        String line = objectMapper.writeValueAsString(bookingDto) + "\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+    }
+
+    @Test
+    void exportBookingsWrongUser() throws Exception {
+        Mockito.doThrow(new NotFoundException("Пользователь с id=3 не найден"))
+                .when(bookingService).validateExport(3L);
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 3))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Пользователь с id=3 не найден")));
+        Mockito.verify(bookingService, Mockito.never()).exportBookings(any(), Mockito.anyBoolean(), any());
+    }
 }
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDTOMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.CustomPageRequest;
 import ru.practicum.shareit.item.ItemRepository;
@@ -16,12 +22,19 @@ import ru.practicum.shareit.user.dto.UserDTOMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -35,6 +48,9 @@ class BookingDbIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User user;
 
     private User secondUser;
@@ -124,18 +140,146 @@ class BookingDbIntegrationTest {
     @Test
     void getAllBookingsByOwner() {
         CustomPageRequest pageable = new CustomPageRequest(0, 10);
-        List<Booking> bookings = bookingRepository.findAllByItem_Owner_IdOrderByEndDesc(1L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAll(
+                BookingFilter.of(1L, true, EnumSet.of(BookingState.ALL), LocalDateTime.now()), pageable);
         assertEquals(2, bookings.size());
-        assertEquals(bookings.get(0), firstItemFutureBooking);
-        assertEquals(bookings.get(1), firstItemPastBooking);
+        assertEquals(bookings.get(0), BookingDTOMapper.toBookingDto(firstItemFutureBooking));
+        assertEquals(bookings.get(1), BookingDTOMapper.toBookingDto(firstItemPastBooking));
     }
 
     @Test
     void getAllBookingsByBooker() {
         CustomPageRequest pageable = new CustomPageRequest(0, 10);
-        List<Booking> bookings = bookingRepository.findAllByBooker_IdOrderByEndDesc(1L, pageable);
+        List<BookingDto> bookings = bookingRepository.findAll(
+                BookingFilter.of(1L, false, EnumSet.of(BookingState.ALL), LocalDateTime.now()), pageable);
         assertEquals(1, bookings.size());
-        assertEquals(bookings.get(0), secondItemFutureBooking);
+        assertEquals(bookings.get(0), BookingDTOMapper.toBookingDto(secondItemFutureBooking));
+        assertEquals(secondItemFutureBooking.getItem().getName(), bookings.get(0).getItem().getName());
     }
 
+    @Test
+    void getLastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.of(2022, 6, 1, 12, 0);
+        Booking nextBooking = bookingRepository.saveAndFlush(
+                new Booking(null, this.firstItem, secondUser,
+                        LocalDateTime.of(2022, 6, 2, 12, 0),
+                        LocalDateTime.of(2022, 6, 3, 12, 0),
+                        BookingStatus.APPROVED));
+        bookingRepository.saveAndFlush(
+                new Booking(null, this.firstItem, secondUser,
+                        LocalDateTime.of(2022, 6, 1, 18, 0),
+                        LocalDateTime.of(2022, 6, 1, 20, 0),
+                        BookingStatus.REJECTED));
+
+        List<BookingShortDto> lastBookings = bookingRepository
+                .findLastBookings(List.of(1L, 2L), now, BookingStatus.APPROVED);
+        List<BookingShortDto> nextBookings = bookingRepository
+                .findNextBookings(List.of(1L, 2L), now, BookingStatus.APPROVED);
+
+        assertEquals(List.of(new BookingShortDto(firstItemPastBooking.getId(), 1L, secondUser.getId())),
+                lastBookings);
+        assertEquals(List.of(new BookingShortDto(nextBooking.getId(), 1L, secondUser.getId())),
+                nextBookings);
+    }
+
+    @Test
+    void existsOverlappedBooking() {
+        Set<BookingStatus> statuses = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertTrue(bookingRepository.existsOverlappedBooking(1L, statuses,
+                LocalDateTime.of(2021, 5, 28, 12, 0), LocalDateTime.of(2021, 5, 30, 12, 0)));
+        assertTrue(bookingRepository.existsOverlappedBooking(1L, statuses,
+                LocalDateTime.of(2021, 5, 29, 19, 0), LocalDateTime.of(2021, 5, 29, 20, 0)));
+        assertFalse(bookingRepository.existsOverlappedBooking(1L, statuses,
+                LocalDateTime.of(2021, 5, 30, 18, 0), LocalDateTime.of(2021, 6, 2, 12, 0)));
+        assertFalse(bookingRepository.existsOverlappedBooking(1L, EnumSet.of(BookingStatus.REJECTED),
+                LocalDateTime.of(2021, 5, 28, 12, 0), LocalDateTime.of(2021, 5, 30, 12, 0)));
+    }
+
+    @Test
+    void findBlockingIntervals() {
+        Set<BookingStatus> statuses = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        bookingRepository.saveAndFlush(new Booking(null, this.firstItem, secondUser,
+                LocalDateTime.of(2023, 2, 1, 18, 0),
+                LocalDateTime.of(2023, 2, 2, 18, 0),
+                BookingStatus.REJECTED));
+
+        assertEquals(List.of(new BookingIntervalDto(firstItemFutureBooking.getId(),
+                        firstItemFutureBooking.getStart(), firstItemFutureBooking.getEnd())),
+                bookingRepository.findBlockingIntervals(1L, statuses, LocalDateTime.of(2022, 6, 1, 12, 0)));
+        assertEquals(2, bookingRepository.findBlockingIntervals(1L, statuses,
+                LocalDateTime.of(2021, 1, 1, 12, 0)).size());
+    }
+
+    @Test
+    void getBookingsPageAfterCursor() {
+        LocalDateTime now = LocalDateTime.of(2022, 6, 1, 12, 0);
+        Booking sameEndBooking = bookingRepository.saveAndFlush(
+                new Booking(null, this.firstItem, secondUser,
+                        LocalDateTime.of(2022, 12, 28, 18, 0),
+                        LocalDateTime.of(2022, 12, 30, 18, 0),
+                        BookingStatus.WAITING));
+
+        List<BookingDto> firstPage = bookingRepository.findPageAfter(
+                BookingFilter.of(1L, true, EnumSet.of(BookingState.ALL), now), null, 2);
+        BookingDto lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingRepository.findPageAfter(
+                BookingFilter.of(1L, true, EnumSet.of(BookingState.ALL), now),
+                new BookingCursor(lastOfFirstPage.getEnd(), lastOfFirstPage.getId()), 2);
+        List<BookingDto> futurePage = bookingRepository.findPageAfter(
+                BookingFilter.of(2L, false, EnumSet.of(BookingState.FUTURE), now), null, 10);
+
+        assertEquals(toBookingDtos(sameEndBooking, firstItemFutureBooking), firstPage);
+        assertEquals(toBookingDtos(firstItemPastBooking), secondPage);
+        assertEquals(toBookingDtos(sameEndBooking, firstItemFutureBooking), futurePage);
+    }
+
+    @Test
+    void findAllWithCombinedFilters() {
+        LocalDateTime now = LocalDateTime.of(2022, 6, 1, 12, 0);
+        Booking approvedFutureBooking = bookingRepository.saveAndFlush(
+                new Booking(null, this.firstItem, secondUser,
+                        LocalDateTime.of(2022, 8, 1, 18, 0),
+                        LocalDateTime.of(2022, 8, 2, 18, 0),
+                        BookingStatus.APPROVED));
+        CustomPageRequest pageable = new CustomPageRequest(0, 10);
+
+        List<BookingDto> futureWaiting = bookingRepository.findAll(
+                BookingFilter.of(1L, true, EnumSet.of(BookingState.FUTURE, BookingState.WAITING), now), pageable);
+        List<BookingDto> pastOrFuture = bookingRepository.findAll(
+                BookingFilter.of(1L, true, EnumSet.of(BookingState.PAST, BookingState.FUTURE), now), pageable);
+        List<BookingDto> inRange = bookingRepository.findAll(new BookingFilter(2L, false,
+                EnumSet.of(BookingState.ALL), now, this.firstItem.getId(),
+                LocalDateTime.of(2022, 7, 1, 0, 0), LocalDateTime.of(2022, 12, 1, 0, 0)), pageable);
+
+        assertEquals(toBookingDtos(firstItemFutureBooking), futureWaiting);
+        assertEquals(toBookingDtos(firstItemFutureBooking, approvedFutureBooking, firstItemPastBooking), pastOrFuture);
+        assertEquals(toBookingDtos(approvedFutureBooking), inRange);
+    }
+
+    @Test
+    void saveAllBatchesInserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            bookings.add(new Booking(null, this.secondItem, user,
+                    LocalDateTime.of(2024, 1, 1, 18, 0).plusDays(i),
+                    LocalDateTime.of(2024, 1, 1, 19, 0).plusDays(i),
+                    BookingStatus.WAITING));
+        }
+        statistics.clear();
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+
+        assertEquals(60, saved.stream().map(Booking::getId).distinct().count());
+        assertTrue(statistics.getPrepareStatementCount() <= 4);
+        assertEquals(63, bookingRepository.count());
+    }
+
+    private List<BookingDto> toBookingDtos(Booking... bookings) {
+        return Arrays.stream(bookings)
+                .map(BookingDTOMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
 }
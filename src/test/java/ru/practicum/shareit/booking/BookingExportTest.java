@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.jpa.show-sql=false"
+})
+class BookingExportTest {
+    private static final int BOOKINGS = 1_000_000;
+    private static final int CHUNK = 100_000;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:./target/h2/booking-export-" + System.currentTimeMillis());
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsOwnerHistoryWithConstantHeap() throws IOException {
+        seed();
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        bookingController.exportBookingsByOwner(1L).getBody().writeTo(out);
+
+        assertEquals(BOOKINGS, out.lines);
+        assertTrue(out.bytes > maxHeap, "Выгрузка должна быть больше доступной памяти");
+    }
+
+    private void seed() {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru'), " +
+                "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (id, name, description, owner_id, available) " +
+                "values (1, 'дрель', 'ударная дрель', 1, true)");
+        for (int from = 1; from <= BOOKINGS; from += CHUNK) {
+            jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                    "select dateadd(hour, x, timestamp '2022-01-01 00:00:00'), " +
+                    "dateadd(hour, x + 1, timestamp '2022-01-01 00:00:00'), 1, 2, 'APPROVED' " +
+                    "from system_range(?, ?)", from, from + CHUNK - 1);
+        }
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
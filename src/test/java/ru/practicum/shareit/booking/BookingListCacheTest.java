@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingListCacheTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 12, 1, 12, 0, 10);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingListCache cache = new BookingListCache(Duration.ofMinutes(1), 100, registry);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<BookingDto>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of();
+    };
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void servesRequestsWithinBucketFromCache() {
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        cache.get(filter(1L, false, NOW.plusSeconds(40)), 0, 10, loader);
+
+        assertEquals(1, loads.get());
+
+        Timer staleness = registry.find("booking.list.cache.staleness").timer();
+        assertNotNull(staleness);
+        assertEquals(1, staleness.count());
+        assertEquals(40, staleness.totalTime(TimeUnit.SECONDS));
+        assertEquals(0.5, registry.get("booking.list.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void loadsAgainInNextBucket() {
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        cache.get(filter(1L, false, NOW.plusSeconds(50)), 0, 10, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void keepsPagesStatesAndRolesApart() {
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        cache.get(filter(1L, false, NOW), 10, 10, loader);
+        cache.get(filter(1L, true, NOW), 0, 10, loader);
+        cache.get(new BookingFilter(1L, false, EnumSet.of(BookingState.FUTURE), NOW, null, null, null),
+                0, 10, loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidatesOnlyAffectedUsers() {
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        cache.get(filter(2L, true, NOW), 0, 10, loader);
+        cache.get(filter(3L, false, NOW), 0, 10, loader);
+
+        cache.invalidate(1L, 2L);
+
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        cache.get(filter(2L, true, NOW), 0, 10, loader);
+        cache.get(filter(3L, false, NOW), 0, 10, loader);
+        assertEquals(5, loads.get());
+        assertEquals(1, registry.get("booking.list.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void invalidatesAfterCommit() {
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(1L);
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(filter(1L, false, NOW), 0, 10, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void zeroBucketDisablesCache() {
+        BookingListCache disabled = new BookingListCache(Duration.ZERO, 100, registry);
+
+        disabled.get(filter(1L, false, NOW), 0, 10, loader);
+        disabled.get(filter(1L, false, NOW), 0, 10, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void subSecondBucket() {
+        BookingListCache halfSecond = new BookingListCache(Duration.ofMillis(500), 100, registry);
+
+        halfSecond.get(filter(1L, false, NOW), 0, 10, loader);
+        halfSecond.get(filter(1L, false, NOW.plusNanos(400_000_000)), 0, 10, loader);
+        assertEquals(1, loads.get());
+
+        halfSecond.get(filter(1L, false, NOW.plusNanos(600_000_000)), 0, 10, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rejectsBucketsThatTruncateToZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingListCache(Duration.ofNanos(500), 100, registry));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingListCache(Duration.ofSeconds(-1), 100, registry));
+    }
+
+    private BookingFilter filter(Long userId, boolean byOwner, LocalDateTime now) {
+        return BookingFilter.of(userId, byOwner, EnumSet.of(BookingState.ALL), now);
+    }
+}
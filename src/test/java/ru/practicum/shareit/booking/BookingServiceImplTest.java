@@ -1,16 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookedItemDto;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingDTOMapper;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.ConfirmedBookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
+import ru.practicum.shareit.common.StripedLock;
 import ru.practicum.shareit.exception.exceptions.BadRequestException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -18,11 +31,18 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 
@@ -40,6 +60,24 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Spy
+    private StripedLock itemLocks = new StripedLock(4);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 12, 1, 12, 0);
+
+    @Spy
+    private RequestTime requestTime = new RequestTime(
+            Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+    @Mock
+    private BookingTimelineCache timelineCache;
+
+    @Spy
+    private BookingListCache listCache = new BookingListCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
     private final User user = new User(1L, "Ivan", "ivan@mail.com");
     private final User secondUser = new User(2L, "Alex", "alex@mail.com");
     private final Item item = new Item(1L, "test", "description",
@@ -54,8 +92,8 @@ class BookingServiceImplTest {
 
     private final ConfirmedBookingDto confirmedBookingDto = new ConfirmedBookingDto(1L,
             BookingStatus.APPROVED,
-            user,
-            item,
+            new BookerDto(user.getId()),
+            new BookedItemDto(item.getId(), item.getName()),
             LocalDateTime.of(2022, 12, 12, 13, 0),
             LocalDateTime.of(2022, 12, 13, 13, 0));
 
@@ -69,10 +107,10 @@ class BookingServiceImplTest {
             LocalDateTime.of(2022, 12, 13, 13, 0),
             BookingStatus.APPROVED);
 
-    private final BookingDto bookingDto = new BookingDto(1L, item,
+    private final BookingDto bookingDto = new BookingDto(1L, item.getId(), item.getName(),
             LocalDateTime.of(2022, 12, 12, 13, 0),
             LocalDateTime.of(2022, 12, 13, 13, 0),
-            user,
+            user.getId(),
             BookingStatus.WAITING);
 
     private final Booking currentBooking = new Booking(1L, item, user,
@@ -80,10 +118,10 @@ class BookingServiceImplTest {
             LocalDateTime.of(2022, 12, 1, 13, 0),
             BookingStatus.APPROVED);
 
-    private final BookingDto currentBookingDto = new BookingDto(1L, item,
+    private final BookingDto currentBookingDto = new BookingDto(1L, item.getId(), item.getName(),
             LocalDateTime.of(2022, 11, 26, 13, 0),
             LocalDateTime.of(2022, 12, 1, 13, 0),
-            user,
+            user.getId(),
             BookingStatus.APPROVED);
 
     private final Booking pastBooking = new Booking(1L, item, user,
@@ -91,10 +129,10 @@ class BookingServiceImplTest {
             LocalDateTime.of(2022, 10, 27, 13, 0),
             BookingStatus.APPROVED);
 
-    private final BookingDto pastBookingDto = new BookingDto(1L, item,
+    private final BookingDto pastBookingDto = new BookingDto(1L, item.getId(), item.getName(),
             LocalDateTime.of(2022, 10, 26, 13, 0),
             LocalDateTime.of(2022, 10, 27, 13, 0),
-            user,
+            user.getId(),
             BookingStatus.APPROVED);
 
     private final Booking futureBooking = new Booking(1L, item, user,
@@ -102,10 +140,10 @@ class BookingServiceImplTest {
             LocalDateTime.of(2022, 12, 27, 13, 0),
             BookingStatus.APPROVED);
 
-    private final BookingDto futureBookingDto = new BookingDto(1L, item,
+    private final BookingDto futureBookingDto = new BookingDto(1L, item.getId(), item.getName(),
             LocalDateTime.of(2022, 12, 26, 13, 0),
             LocalDateTime.of(2022, 12, 27, 13, 0),
-            user,
+            user.getId(),
             BookingStatus.APPROVED);
 
     private final Booking rejectedBooking = new Booking(1L, item, user,
@@ -113,32 +151,43 @@ class BookingServiceImplTest {
             LocalDateTime.of(2022, 12, 27, 13, 0),
             BookingStatus.REJECTED);
 
-    private final BookingDto rejectedBookingDto = new BookingDto(1L, item,
+    private final BookingDto rejectedBookingDto = new BookingDto(1L, item.getId(), item.getName(),
             LocalDateTime.of(2022, 12, 26, 13, 0),
             LocalDateTime.of(2022, 12, 27, 13, 0),
-            user,
+            user.getId(),
             BookingStatus.REJECTED);
 
+    @BeforeEach
+    void init() {
+        Mockito.lenient()
+                .when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     void addBooking() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.saveAndFlush(booking))
+        Mockito.when(bookingRepository.save(booking))
                 .thenReturn(booking);
 
         BookingDto createdBooking = bookingService.addBooking(createBookingDto, 1L);
 
         assertEquals(bookingDto, createdBooking);
         Mockito.verify(bookingRepository, Mockito.times(1))
-                .saveAndFlush(booking);
+                .save(booking);
+        Mockito.verify(listCache, Mockito.times(1)).invalidate(1L, 2L);
+        Mockito.verify(timelineCache, Mockito.times(1)).onStatusChanged(booking);
     }
 
     @Test
     void addBookingWrongUser() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class, () -> {
             bookingService.addBooking(createBookingDto, 2L);
@@ -149,9 +198,11 @@ class BookingServiceImplTest {
 
     @Test
     void addBookingWrongItem() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(1L))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(1L))
                 .thenReturn(Optional.empty());
         NotFoundException notFoundException = assertThrows(NotFoundException.class, () -> {
             bookingService.addBooking(createBookingDto, 1L);
@@ -167,9 +218,11 @@ class BookingServiceImplTest {
         CreateBookingDto createBookingDto = new CreateBookingDto(null, 2L, start, end);
 
 
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
             bookingService.addBooking(createBookingDto, 1L);
@@ -185,9 +238,11 @@ class BookingServiceImplTest {
 
         CreateBookingDto createBookingDto = new CreateBookingDto(null, 2L, start, end);
 
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
@@ -199,13 +254,15 @@ class BookingServiceImplTest {
 
     @Test
     void addBookingUnavailableDate() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findAllOverlappedBookings(1L, createBookingDto.getStart(),
-                createBookingDto.getEnd()))
-                .thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.existsOverlappedBooking(eq(1L), anyCollection(),
+                        eq(createBookingDto.getStart()), eq(createBookingDto.getEnd())))
+                .thenReturn(true);
 
         BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
             bookingService.addBooking(createBookingDto, 1L);
@@ -216,13 +273,15 @@ class BookingServiceImplTest {
 
     @Test
     void addBookingUnavailableItem() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(unavailableItem));
-        Mockito.when(bookingRepository.findAllOverlappedBookings(1L, createBookingDto.getStart(),
-                        createBookingDto.getEnd()))
-                .thenReturn(List.of());
+        Mockito.when(bookingRepository.existsOverlappedBooking(eq(1L), anyCollection(),
+                        eq(createBookingDto.getStart()), eq(createBookingDto.getEnd())))
+                .thenReturn(false);
 
         BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
             bookingService.addBooking(createBookingDto, 1L);
@@ -233,13 +292,15 @@ class BookingServiceImplTest {
 
     @Test
     void addBookingByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(itemRepository.findById(anyLong()))
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(2L))
+                .thenReturn(secondUser);
+        Mockito.when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findAllOverlappedBookings(1L, createBookingDto.getStart(),
-                        createBookingDto.getEnd()))
-                .thenReturn(List.of());
+        Mockito.when(bookingRepository.existsOverlappedBooking(eq(1L), anyCollection(),
+                        eq(createBookingDto.getStart()), eq(createBookingDto.getEnd())))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class, () -> {
             bookingService.addBooking(createBookingDto, 2L);
@@ -253,15 +314,12 @@ class BookingServiceImplTest {
         Mockito.when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
-         System.out.println(booking.getStatus());
-        Mockito.when(bookingRepository.saveAndFlush(booking))
-                .thenReturn(booking);
-
         ConfirmedBookingDto confirmedBooking = bookingService.confirmBooking(1L, 2L, true);
 
         assertEquals(confirmedBookingDto, confirmedBooking);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .saveAndFlush(booking);
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        Mockito.verify(listCache, Mockito.times(1)).invalidate(1L, 2L);
+        Mockito.verify(timelineCache, Mockito.times(1)).onStatusChanged(booking);
     }
 
     @Test
@@ -337,186 +395,217 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByOwner() {
-        CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllByItem_Owner_IdOrderByEndDesc(2L, pageRequest))
-                .thenReturn(List.of(booking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.ALL), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("ALL", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("ALL"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), bookingDto);
     }
 
+    @Test
+    void getAllBookingsServedFromCacheUntilInvalidated() {
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.ALL), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
+
+        bookingService.getAllBookings(stateFilter("ALL"), 2L, true, 0, 10);
+        List<BookingDto> cached = bookingService.getAllBookings(stateFilter("ALL"), 2L, true, 0, 10);
+        bookingService.getAllBookings(stateFilter("ALL"), 2L, true, 10, 10);
+
+        assertEquals(List.of(bookingDto), cached);
+        Mockito.verify(bookingRepository, Mockito.times(1)).findAll(any(BookingFilter.class), eq(new CustomPageRequest(0, 10)));
+        Mockito.verify(bookingRepository, Mockito.times(1)).findAll(any(BookingFilter.class), eq(new CustomPageRequest(10, 10)));
+
+        listCache.invalidate(2L);
+        bookingService.getAllBookings(stateFilter("ALL"), 2L, true, 0, 10);
+
+        Mockito.verify(bookingRepository, Mockito.times(2)).findAll(any(BookingFilter.class), eq(new CustomPageRequest(0, 10)));
+    }
+
     @Test
     void getAllBookingsByBooker() {
-        CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllByBooker_IdOrderByEndDesc(1L, pageRequest))
-                .thenReturn(List.of(booking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.ALL), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("ALL", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("ALL"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), bookingDto);
     }
 
     @Test
     void getCurrentBookingsByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllCurrentByOwner(anyLong(), any(), any()))
-                .thenReturn(List.of(currentBooking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.CURRENT), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(currentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("CURRENT", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("CURRENT"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), currentBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllCurrentByOwner(anyLong(), any(), any());
     }
 
     @Test
     void getCurrentBookingsByBooker() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllCurrentByBooker(anyLong(), any(), any()))
-                .thenReturn(List.of(currentBooking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.CURRENT), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(currentBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("CURRENT", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("CURRENT"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), currentBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllCurrentByBooker(anyLong(), any(), any());
     }
 
     @Test
     void getPastBookingsByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllPastByOwner(anyLong(), any(), any()))
-                .thenReturn(List.of(pastBooking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.PAST), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(pastBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("PAST", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("PAST"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), pastBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllPastByOwner(anyLong(), any(), any());
     }
 
     @Test
     void getPastBookingsByBooker() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllPastByBooker(anyLong(), any(), any()))
-                .thenReturn(List.of(pastBooking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.PAST), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(pastBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("PAST", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("PAST"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), pastBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllPastByBooker(anyLong(), any(), any());
     }
 
     @Test
     void getFutureBookingsByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllFutureByOwner(anyLong(), any(), any()))
-                .thenReturn(List.of(futureBooking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.FUTURE), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(futureBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("FUTURE", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("FUTURE"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), futureBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllFutureByOwner(anyLong(), any(), any());
     }
 
     @Test
     void getFutureBookingsByBooker() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllFutureByBooker(anyLong(), any(), any()))
-                .thenReturn(List.of(futureBooking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.FUTURE), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(futureBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("FUTURE", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("FUTURE"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), futureBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllFutureByBooker(anyLong(), any(), any());
     }
 
     @Test
     void getWaitingBookingsByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllByItem_Owner_IdAndStatusOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.WAITING), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("WAITING", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("WAITING"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), bookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllByItem_Owner_IdAndStatusOrderByEndDesc(anyLong(), any(), any());
     }
 
     @Test
     void getWaitingBookingsByBooking() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllByBooker_IdAndStatusOrderByEnd(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.WAITING), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("WAITING", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("WAITING"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), bookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllByBooker_IdAndStatusOrderByEnd(anyLong(), any(), any());
     }
 
     @Test
     void getRejectedBookingsByOwner() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.of(secondUser));
-        Mockito.when(bookingRepository.findAllByItem_Owner_IdAndStatusOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(List.of(rejectedBooking));
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(2L, true, BookingState.REJECTED), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(rejectedBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("REJECTED", 2L, true, 0, 10);
+                .getAllBookings(stateFilter("REJECTED"), 2L, true, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), rejectedBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllByItem_Owner_IdAndStatusOrderByEndDesc(anyLong(), any(), any());
     }
 
     @Test
     void getRejectedBookingsByBooking() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllByBooker_IdAndStatusOrderByEnd(anyLong(), any(), any()))
-                .thenReturn(List.of(rejectedBooking));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(filterFor(1L, false, BookingState.REJECTED), eq(new CustomPageRequest(0, 10))))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(rejectedBooking)));
 
         List<BookingDto> bookingDtos = bookingService
-                .getAllBookings("REJECTED", 1L, false, 0, 10);
+                .getAllBookings(stateFilter("REJECTED"), 1L, false, 0, 10);
         assertEquals(1, bookingDtos.size());
         assertEquals(bookingDtos.get(0), rejectedBookingDto);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findAllByBooker_IdAndStatusOrderByEnd(anyLong(), any(), any());
+    }
+
+    @Test
+    void getBookingsWithCombinedFilters() {
+        LocalDateTime rangeStart = LocalDateTime.of(2022, 12, 1, 0, 0);
+        LocalDateTime rangeEnd = LocalDateTime.of(2022, 12, 31, 0, 0);
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findAll(any(BookingFilter.class), any()))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking)));
+
+        List<BookingDto> bookingDtos = bookingService.getAllBookings(
+                new BookingFilterDto("FUTURE, WAITING", 1L, rangeStart, rangeEnd), 2L, true, 0, 10);
+
+        ArgumentCaptor<BookingFilter> filter = ArgumentCaptor.forClass(BookingFilter.class);
+        Mockito.verify(bookingRepository).findAll(filter.capture(), any());
+        assertEquals(List.of(bookingDto), bookingDtos);
+        assertEquals(EnumSet.of(BookingState.FUTURE, BookingState.WAITING), filter.getValue().getStates());
+        assertEquals(1L, filter.getValue().getItemId());
+        assertEquals(rangeStart, filter.getValue().getRangeStart());
+        assertEquals(rangeEnd, filter.getValue().getRangeEnd());
+    }
+
+    @Test
+    void getAllBookingsWrongRange() {
+        BookingFilterDto filter = new BookingFilterDto("ALL", null,
+                LocalDateTime.of(2022, 12, 31, 0, 0), LocalDateTime.of(2022, 12, 1, 0, 0));
+        BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
+            bookingService.getAllBookings(filter, 1L, false, 0, 10);
+        });
+
+        assertEquals("Конец периода не может быть раньше начала", badRequestException.getMessage());
     }
 
     @Test
     void getAllBookingsWrongState() {
         BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
-            bookingService.getAllBookings("WRONG",1L, true, 1, 10);
+            bookingService.getAllBookings(stateFilter("FUTURE,WRONG"), 1L, true, 1, 10);
         });
 
         assertEquals("Unknown state: WRONG", badRequestException.getMessage());
@@ -524,12 +613,85 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsWrongUser() {
-        Mockito.when(userRepository.findById(3L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(3L))
+                .thenReturn(false);
         NotFoundException notFoundException = assertThrows(NotFoundException.class, () -> {
-            bookingService.getAllBookings("ALL",3L, true, 1, 10);
+            bookingService.getAllBookings(stateFilter("ALL"), 3L, true, 1, 10);
         });
 
         assertEquals("Пользователь с id=3 не найден", notFoundException.getMessage());
     }
+
+    @Test
+    void getBookingsPage() {
+        Booking olderBooking = new Booking(2L, item, user,
+                LocalDateTime.of(2022, 12, 10, 13, 0),
+                LocalDateTime.of(2022, 12, 11, 13, 0),
+                BookingStatus.WAITING);
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(bookingRepository.findPageAfter(filterFor(1L, false, BookingState.ALL), isNull(), eq(2)))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(booking), BookingDTOMapper.toBookingDto(olderBooking)));
+
+        BookingPageDto page = bookingService.getBookingsPage(stateFilter("ALL"), 1L, false, "", 1);
+
+        assertEquals(List.of(bookingDto), page.getBookings());
+        assertEquals(new BookingCursor(booking.getEnd(), 1L), BookingCursor.decode(page.getNextCursor()));
+
+        Mockito.when(bookingRepository.findPageAfter(filterFor(1L, false, BookingState.ALL),
+                        eq(new BookingCursor(booking.getEnd(), 1L)), eq(2)))
+                .thenReturn(List.of(BookingDTOMapper.toBookingDto(olderBooking)));
+
+        BookingPageDto lastPage = bookingService.getBookingsPage(stateFilter("ALL"), 1L, false, page.getNextCursor(), 1);
+
+        assertEquals(1, lastPage.getBookings().size());
+        assertEquals(2L, lastPage.getBookings().get(0).getId());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getBookingsPageWrongCursor() {
+        BadRequestException badRequestException = assertThrows(BadRequestException.class, () -> {
+            bookingService.getBookingsPage(stateFilter("ALL"), 1L, false, "wrong", 10);
+        });
+
+        assertEquals("Некорректный курсор: wrong", badRequestException.getMessage());
+    }
+
+    @Test
+    void exportBookingsByOwner() {
+        Mockito.when(bookingRepository.streamAllByItem_Owner_Id(2L))
+                .thenReturn(Stream.of(bookingDto));
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportBookings(2L, true, exported::add);
+
+        assertEquals(List.of(bookingDto), exported);
+        Mockito.verify(bookingRepository, Mockito.never()).streamAllByBooker_Id(anyLong());
+    }
+
+    @Test
+    void exportBookingsWrongUser() {
+        Mockito.when(userRepository.existsById(3L))
+                .thenReturn(false);
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class, () -> {
+            bookingService.validateExport(3L);
+        });
+
+        assertEquals("Пользователь с id=3 не найден", notFoundException.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).streamAllByBooker_Id(anyLong());
+    }
+
+    private static BookingFilterDto stateFilter(String state) {
+        return new BookingFilterDto(state, null, null, null);
+    }
+
+    private BookingFilter filterFor(Long userId, boolean byOwner, BookingState... states) {
+        return argThat(filter -> filter != null && filter.getUserId().equals(userId)
+                && filter.isByOwner() == byOwner
+                && filter.getStates().equals(EnumSet.copyOf(List.of(states)))
+                && filter.getCurrentDate().equals(NOW)
+                && filter.getItemId() == null);
+    }
 }
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+class BookingTimelineCacheTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final BookingTimelineCache cache = new BookingTimelineCache(bookingRepository, itemRepository,
+            Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+    @Test
+    void bookingCommittedDuringLoadIsKept() throws Exception {
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        Mockito.when(itemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(bookingRepository.findBlockingIntervals(anyLong(), any(), any()))
+                .thenAnswer(invocation -> {
+                    queried.countDown();
+                    assertTrue(committed.await(5, TimeUnit.SECONDS));
+                    return List.<BookingIntervalDto>of();
+                });
+        Item item = new Item(1L, "дрель", "ударная", null, true, null);
+        Booking booking = new Booking(10L, item, new User(2L, "booker", "booker@mail.ru"),
+                NOW.plusDays(2), NOW.plusDays(4), BookingStatus.APPROVED);
+
+        CompletableFuture<?> load = CompletableFuture.runAsync(() -> cache.get(1L, NOW));
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> commit = CompletableFuture.runAsync(() -> cache.onStatusChanged(booking));
+        Thread.sleep(200);
+        committed.countDown();
+        load.get(5, TimeUnit.SECONDS);
+        commit.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(new FreeIntervalDto(NOW, NOW.plusDays(2)),
+                        new FreeIntervalDto(NOW.plusDays(4), NOW.plusDays(10))),
+                cache.get(1L, NOW).orElseThrow().freeIntervals(NOW, NOW, NOW.plusDays(10)));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingTimelineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 12, 1, 12, 0);
+
+    @Test
+    void mergesOverlappingAndAdjacentBookings() {
+        BookingTimeline timeline = new BookingTimeline(List.of(
+                interval(1L, 2, 4),
+                interval(2L, 3, 5),
+                interval(3L, 5, 6),
+                interval(4L, 8, 9)));
+
+        assertEquals(List.of(free(1, 2), free(6, 8), free(9, 10)),
+                timeline.freeIntervals(NOW, day(1), day(10)));
+    }
+
+    @Test
+    void clipsBookingsCrossingPeriodBounds() {
+        BookingTimeline timeline = new BookingTimeline(List.of(
+                interval(1L, 1, 3),
+                interval(2L, 6, 12)));
+
+        assertEquals(List.of(free(3, 6)), timeline.freeIntervals(NOW, day(2), day(10)));
+    }
+
+    @Test
+    void returnsNothingWhenPeriodIsBooked() {
+        BookingTimeline timeline = new BookingTimeline(List.of(interval(1L, 1, 12)));
+
+        assertEquals(List.of(), timeline.freeIntervals(NOW, day(2), day(10)));
+    }
+
+    @Test
+    void returnsWholePeriodWithoutBookings() {
+        BookingTimeline timeline = new BookingTimeline(List.of(interval(1L, 11, 12)));
+
+        assertEquals(List.of(free(2, 10)), timeline.freeIntervals(NOW, day(2), day(10)));
+    }
+
+    @Test
+    void addsAndRemovesBookings() {
+        BookingTimeline timeline = new BookingTimeline(List.of());
+
+        timeline.add(interval(1L, 3, 4));
+        timeline.add(interval(1L, 3, 4));
+        timeline.add(interval(2L, 6, 7));
+        assertEquals(2, timeline.size());
+        assertEquals(List.of(free(2, 3), free(4, 6), free(7, 10)), timeline.freeIntervals(NOW, day(2), day(10)));
+
+        timeline.remove(1L);
+        assertEquals(List.of(free(2, 6), free(7, 10)), timeline.freeIntervals(NOW, day(2), day(10)));
+    }
+
+    @Test
+    void dropsEndedBookings() {
+        BookingTimeline timeline = new BookingTimeline(List.of(
+                interval(1L, 1, 2),
+                interval(2L, 3, 4)));
+
+        timeline.freeIntervals(day(3), day(3), day(10));
+
+        assertEquals(1, timeline.size());
+    }
+
+    private static BookingIntervalDto interval(Long id, int startDay, int endDay) {
+        return new BookingIntervalDto(id, day(startDay), day(endDay));
+    }
+
+    private static FreeIntervalDto free(int startDay, int endDay) {
+        return new FreeIntervalDto(day(startDay), day(endDay));
+    }
+
+    private static LocalDateTime day(int day) {
+        return NOW.plusDays(day);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.common;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.RequestRepository;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.common.QueryPlanTest$CapturingStatementInspector")
+class QueryPlanTest {
+    private static final int USERS = 50;
+    private static final int ITEMS_PER_USER = 20;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int BATCH_SIZE = 500;
+    private static final Set<String> STATEMENTS = new LinkedHashSet<>();
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 1, 10, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime base = LocalDateTime.of(2022, 1, 1, 12, 0);
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                range(1, USERS), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "user" + id);
+                    ps.setString(3, "user" + id + "@mail.ru");
+                });
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                range(1, USERS), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "request" + id);
+                    ps.setLong(3, id);
+                    ps.setObject(4, base.plusHours(id));
+                });
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request_id) " +
+                        "values (?, ?, ?, true, ?, ?)",
+                range(1, USERS * ITEMS_PER_USER), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "item" + id);
+                    ps.setString(3, "description" + id);
+                    ps.setLong(4, (id - 1) / ITEMS_PER_USER + 1);
+                    ps.setLong(5, id % USERS + 1);
+                });
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                range(1, USERS * ITEMS_PER_USER * BOOKINGS_PER_ITEM), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setObject(2, base.plusDays(id % BOOKINGS_PER_ITEM * 3));
+                    ps.setObject(3, base.plusDays(id % BOOKINGS_PER_ITEM * 3 + 1));
+                    ps.setLong(4, (id - 1) / BOOKINGS_PER_ITEM + 1);
+                    ps.setLong(5, id % USERS + 1);
+                    ps.setString(6, BookingStatus.values()[(int) (id % 3)].name());
+                });
+        jdbcTemplate.batchUpdate("insert into comments (id, text, item_id, author_id, created_date) " +
+                        "values (?, ?, ?, ?, ?)",
+                range(1, USERS * ITEMS_PER_USER), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "comment" + id);
+                    ps.setLong(3, id);
+                    ps.setLong(4, id % USERS + 1);
+                    ps.setObject(5, base);
+                });
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        CustomPageRequest page = new CustomPageRequest(0, 10);
+
+        for (boolean byOwner : new boolean[]{false, true}) {
+            for (BookingState state : BookingState.values()) {
+                bookingRepository.findAll(BookingFilter.of(1L, byOwner, EnumSet.of(state), NOW), page);
+            }
+            bookingRepository.findAll(BookingFilter.of(1L, byOwner,
+                    EnumSet.of(BookingState.FUTURE, BookingState.WAITING), NOW), page);
+            bookingRepository.findAll(new BookingFilter(1L, byOwner, EnumSet.of(BookingState.ALL), NOW, 1L,
+                    NOW.minusDays(5), NOW.plusDays(5)), page);
+            bookingRepository.findPageAfter(BookingFilter.of(1L, byOwner, EnumSet.of(BookingState.ALL), NOW),
+                    null, 10);
+        }
+        bookingRepository.findAllBookingsOfItemAndOwner(1L, 2L, NOW);
+        bookingRepository.findLastBookings(List.of(1L, 2L), NOW, BookingStatus.APPROVED);
+        bookingRepository.findNextBookings(List.of(1L, 2L), NOW, BookingStatus.APPROVED);
+        bookingRepository.existsOverlappedBooking(1L,
+                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW, NOW.plusDays(1));
+        bookingRepository.findBlockingIntervals(1L, EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW);
+        itemRepository.findAllByOwner_Id(1L, page);
+        itemRepository.findAllByRequest_Id(1L);
+        itemRepository.findAllByRequest_IdIn(List.of(1L, 2L));
+        itemRepository.findAllAvailableByIdIn(List.of(1L, 2L), BookingStatus.BLOCKING, NOW, NOW.plusDays(1), page);
+        commentRepository.findAllByItem_IdIn(List.of(1L, 2L));
+        requestRepository.findAllByRequestor_Id(1L, page);
+
+        assertFalse(STATEMENTS.isEmpty());
+        List<String> tableScans = new ArrayList<>();
+        for (String sql : STATEMENTS) {
+            String plan = explain(sql);
+            if (plan.contains("tableScan")) {
+                tableScans.add(String.format("%s%n%s", sql, plan));
+            }
+        }
+        assertTrue(tableScans.isEmpty(), String.format("Запросы без индекса:%n%s", String.join("\n\n", tableScans)));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    /**
+     * Binds values from the seeded dataset, so the planner sees real selectivity instead of NULL comparisons.
+     */
+    private static Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.BIGINT:
+                return 1L;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+                return 10;
+            case Types.BOOLEAN:
+                return true;
+            case Types.TIMESTAMP:
+                return NOW;
+            case Types.VARCHAR:
+            case Types.CHAR:
+                return BookingStatus.APPROVED.name();
+            default:
+                throw new IllegalStateException("Нет тестового значения для типа " + sqlType);
+        }
+    }
+
+    private static List<Long> range(long from, long to) {
+        List<Long> values = new ArrayList<>();
+        for (long i = from; i <= to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RequestTimeTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-12-01T12:00:00Z"));
+    private final RequestTime requestTime = new RequestTime(clock);
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void nowIsFixedWithinRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        LocalDateTime first = requestTime.now();
+        clock.advance(Duration.ofMinutes(1));
+
+        assertEquals(first, requestTime.now());
+        assertEquals(LocalDateTime.of(2022, 12, 1, 12, 0), first);
+    }
+
+    @Test
+    void nowFollowsClockOutsideRequest() {
+        LocalDateTime first = requestTime.now();
+        clock.advance(Duration.ofMinutes(1));
+
+        assertNotEquals(first, requestTime.now());
+        assertEquals(first.plusMinutes(1), requestTime.now());
+    }
+
+    @Test
+    void newRequestGetsNewTime() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        LocalDateTime first = requestTime.now();
+        clock.advance(Duration.ofMinutes(1));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals(first.plusMinutes(1), requestTime.now());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
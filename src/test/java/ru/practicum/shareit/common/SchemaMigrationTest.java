@@ -0,0 +1,106 @@
+package ru.practicum.shareit.common;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schemamigration")
+class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void idsContinueAfterExistingRows() {
+        User user = userRepository.save(new User(null, "user4", "user4@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "пила", "ручная", user, true, null));
+        Booking booking = bookingRepository.save(new Booking(null, item, user, LocalDateTime.of(2022, 12, 1, 10, 0),
+                LocalDateTime.of(2022, 12, 2, 10, 0), BookingStatus.WAITING));
+
+        assertTrue(user.getId() > 3);
+        assertTrue(item.getId() > 2);
+        assertTrue(booking.getId() > 2);
+    }
+
+    @Test
+    void migrationsRunOnce() {
+        User first = userRepository.save(new User(null, "user5", "user5@mail.ru"));
+
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+
+        jdbcTemplate.update("insert into users (name, email) values ('user6', 'user6@mail.ru')");
+        User second = userRepository.save(new User(null, "user7", "user7@mail.ru"));
+        Long sqlId = jdbcTemplate.queryForObject("select id from users where email = 'user6@mail.ru'", Long.class);
+
+        assertEquals(first.getId() + 1, second.getId());
+        assertNotEquals(second.getId(), sqlId);
+        assertTrue(sqlId > first.getId());
+    }
+
+    @Test
+    void keepsSequencesOfAlreadyConvertedDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schemamigration-converted;DB_CLOSE_DELAY=-1", "test", "test");
+        new ResourceDatabasePopulator(new ClassPathResource("legacy-schema.sql"),
+                new ClassPathResource("legacy-sequences.sql")).execute(dataSource);
+
+        Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(dataSource)
+                .load()
+                .migrate();
+
+        JdbcTemplate converted = new JdbcTemplate(dataSource);
+        converted.update("insert into users (name, email) values ('user8', 'user8@mail.ru')");
+        converted.update("insert into items (name, description, available, owner_id) values ('пила', 'ручная', true, 1)");
+        assertTrue(converted.queryForObject("select id from users where email = 'user8@mail.ru'", Long.class) > 1000);
+        assertTrue(converted.queryForObject("select id from items where name = 'пила'", Long.class) > 2);
+    }
+
+    @TestConfiguration
+    static class LegacyDatabase {
+        /**
+         * Fills the database the way it looked before Flyway, so migrate() has to baseline it.
+         */
+        @Bean
+        FlywayMigrationStrategy legacyThenMigrate() {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("legacy-schema.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache-primary",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "shareit.datasource.replica.urls=" + ReplicaCacheTest.REPLICA_URL,
+        "shareit.datasource.replica.max-lag=1m"
+})
+class ReplicaCacheTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:cache-replica;DB_CLOSE_DELAY=-1";
+    private static final String INSERT_USER = "insert into users (id, name, email) values (?, ?, ?)";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReadYourWritesTracker tracker;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void initReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void replicaReadsAreNotCached() {
+        replica.update(INSERT_USER, 4001L, "replica", "cache-replica@mail.ru");
+
+        assertEquals("replica", userService.getUser(4001L).getName());
+        assertFalse(entityManagerFactory.getCache().contains(User.class, 4001L));
+    }
+
+    @Test
+    void replicaQueriesAreNotCached() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        statistics.clear();
+
+        readOnly.executeWithoutResult(status -> itemRepository.findAllByRequest_Id(4003L));
+
+        assertEquals(0, statistics.getQueryCachePutCount());
+    }
+
+    @Test
+    void primaryReadsAreCached() {
+        primary.update(INSERT_USER, 4002L, "primary", "cache-primary@mail.ru");
+
+        ReadYourWritesTracker.setCurrentUser(4002L);
+        try {
+            tracker.markWrite();
+            assertEquals("primary", userService.getUser(4002L).getName());
+        } finally {
+            ReadYourWritesTracker.clearCurrentUser();
+        }
+        assertTrue(entityManagerFactory.getCache().contains(User.class, 4002L));
+    }
+
+    @Test
+    void poolsUseHikariSettings() {
+        for (DataSource pool : routingDataSource.getResolvedDataSources().values()) {
+            assertEquals(3, ((HikariDataSource) pool).getMaximumPoolSize());
+        }
+        assertEquals(2, routingDataSource.getResolvedDataSources().size());
+    }
+}
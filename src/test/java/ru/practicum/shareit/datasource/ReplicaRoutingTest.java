@@ -0,0 +1,152 @@
+package ru.practicum.shareit.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingFilterDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "shareit.datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica.max-lag=1m"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final String INSERT_USER = "insert into users (id, name, email) values (?, ?, ?)";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void initReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        replica.update(INSERT_USER, 500L, "replica", "replica@mail.ru");
+
+        assertTrue(userService.getAllUsers().stream()
+                .anyMatch(user -> user.getEmail().equals("replica@mail.ru")));
+        assertEquals(0, countUsers(primary, "replica@mail.ru"));
+    }
+
+    @Test
+    void writeTransactionsUsePrimary() {
+        userService.addUser(new UserDto(null, "primary", "primary@mail.ru"));
+
+        assertEquals(1, countUsers(primary, "primary@mail.ru"));
+        assertEquals(0, countUsers(replica, "primary@mail.ru"));
+    }
+
+    @Test
+    void bookingListsUseReplica() {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update(INSERT_USER, 2001L, "owner", "list-owner@mail.ru");
+            database.update(INSERT_USER, 2002L, "booker", "list-booker@mail.ru");
+        }
+        replica.update("insert into items (id, name, description, available, owner_id) values (2001, 'дрель', 'дрель', true, 2001)");
+        replica.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) values (2001, ?, ?, 2001, 2002, 'WAITING')",
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+
+        assertEquals(1, bookingService.getAllBookings(new BookingFilterDto("ALL", null, null, null), 2002L, false, 0, 10).size());
+    }
+
+    @Test
+    void bookerReadsOwnerConfirmationFromPrimary() throws Exception {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update(INSERT_USER, 3001L, "owner", "confirm-owner@mail.ru");
+            database.update(INSERT_USER, 3002L, "booker", "confirm-booker@mail.ru");
+            database.update("insert into items (id, name, description, available, owner_id) values (3001, 'дрель', 'дрель', true, 3001)");
+            database.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) values (3001, ?, ?, 3001, 3002, 'WAITING')",
+                    LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        }
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 3002))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("WAITING"));
+
+        mockMvc.perform(patch("/bookings/{id}", 3001)
+                        .header("X-Sharer-User-Id", 3001)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 3002))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"));
+    }
+
+    @Test
+    void readsOwnWritesFromPrimary() throws Exception {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update(INSERT_USER, 1001L, "owner", "owner@mail.ru");
+            database.update(INSERT_USER, 1002L, "reader", "reader@mail.ru");
+        }
+
+        String response = mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", 1001)
+                        .content(objectMapper.writeValueAsString(new ItemDto(null, "дрель", "дрель", true, null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Long itemId = objectMapper.readValue(response, ItemDto.class).getId();
+
+        mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", 1001))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", 1002))
+                .andExpect(status().isNotFound());
+    }
+
+    private int countUsers(JdbcTemplate database, String email) {
+        Integer count = database.queryForObject("select count(*) from users where email = ?", Integer.class, email);
+        return count == null ? 0 : count;
+    }
+}
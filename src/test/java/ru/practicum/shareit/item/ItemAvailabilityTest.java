@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:itemavailability",
+        "shareit.booking.timeline.expire-after-write=1s"
+})
+class ItemAvailabilityTest {
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void followsBookingWrites() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "availability-owner@mail.ru"));
+        UserDto booker = userService.addUser(new UserDto(null, "booker", "availability-booker@mail.ru"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "дрель", "ударная дрель", true, null), owner.getId());
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = from.plusDays(10);
+
+        assertEquals(List.of(new FreeIntervalDto(from, to)), itemService.getAvailability(item.getId(), from, to));
+
+        BookingDto booking = bookingService.addBooking(new CreateBookingDto(null, item.getId(),
+                from.plusDays(2), from.plusDays(4)), booker.getId());
+        assertEquals(List.of(new FreeIntervalDto(from, from.plusDays(2)), new FreeIntervalDto(from.plusDays(4), to)),
+                itemService.getAvailability(item.getId(), from, to));
+
+        bookingService.confirmBooking(booking.getId(), owner.getId(), false);
+        assertEquals(List.of(new FreeIntervalDto(from, to)), itemService.getAvailability(item.getId(), from, to));
+    }
+
+    @Test
+    void reloadsBookingsWrittenElsewhere() throws InterruptedException {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "availability-sql-owner@mail.ru"));
+        UserDto booker = userService.addUser(new UserDto(null, "booker", "availability-sql-booker@mail.ru"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "дрель", "ударная дрель", true, null), owner.getId());
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = from.plusDays(10);
+        assertEquals(List.of(new FreeIntervalDto(from, to)), itemService.getAvailability(item.getId(), from, to));
+
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, 'APPROVED')",
+                from.plusDays(2), from.plusDays(4), item.getId(), booker.getId());
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<FreeIntervalDto> free = itemService.getAvailability(item.getId(), from, to);
+        while (free.size() == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            free = itemService.getAvailability(item.getId(), from, to);
+        }
+
+        assertEquals(List.of(new FreeIntervalDto(from, from.plusDays(2)), new FreeIntervalDto(from.plusDays(4), to)),
+                free);
+    }
+
+    @Test
+    void unknownItem() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(10_000L, from, from.plusDays(1)));
+    }
+}
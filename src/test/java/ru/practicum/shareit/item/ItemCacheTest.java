@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.RequestService;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:itemcache",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+class ItemCacheTest {
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getItemHitsSecondLevelCache() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "cache-owner@mail.ru"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "дрель", "ударная дрель", true, null), owner.getId());
+        itemService.getItem(item.getId(), owner.getId());
+
+        statistics.clear();
+        itemService.getItem(item.getId(), owner.getId());
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void editedEntitiesAreNotStale() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "edit-owner@mail.ru"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "пила", "ручная пила", true, null), owner.getId());
+        itemService.getItem(item.getId(), owner.getId());
+        userService.getUser(owner.getId());
+
+        itemService.editItem(item.getId(), new ItemDto(null, "лобзик", null, null, null), owner.getId());
+        userService.editUser(new UserDto(null, "renamed", null), owner.getId());
+
+        assertEquals("лобзик", itemService.getItem(item.getId(), owner.getId()).getName());
+        assertEquals("renamed", userService.getUser(owner.getId()).getName());
+    }
+
+    @Test
+    void deletedItemIsEvicted() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "delete-owner@mail.ru"));
+        ItemDto item = itemService.addItem(new ItemDto(null, "молоток", "молоток", true, null), owner.getId());
+        itemService.getItem(item.getId(), owner.getId());
+
+        itemService.deleteItem(item.getId(), owner.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItem(item.getId(), owner.getId()));
+    }
+
+    @Test
+    void bulkImportRefreshesCachedRequestItems() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "bulk-owner@mail.ru"));
+        UserDto requestor = userService.addUser(new UserDto(null, "requestor", "bulk-requestor@mail.ru"));
+        RequestDto request = requestService.addRequest(new CreateRequestDto(null, "нужна дрель"), requestor.getId());
+        ItemDto item = itemService.addItem(new ItemDto(null, "дрель", "ударная дрель", true, request.getId()),
+                owner.getId());
+        assertEquals(1, itemRepository.findAllByRequest_Id(request.getId()).size());
+        assertEquals(1, itemRepository.findAllByRequest_IdIn(List.of(request.getId())).size());
+        itemService.getItem(item.getId(), owner.getId());
+
+        itemService.addItems(List.of(new ItemDto(null, "перфоратор", "перфоратор", true, request.getId())),
+                owner.getId());
+
+        assertEquals(2, itemRepository.findAllByRequest_Id(request.getId()).size());
+        assertEquals(2, itemRepository.findAllByRequest_IdIn(List.of(request.getId())).size());
+    }
+}
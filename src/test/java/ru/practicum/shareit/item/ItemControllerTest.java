@@ -10,6 +10,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -23,7 +24,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
-@WebMvcTest(ItemController.class)
+@WebMvcTest(controllers = ItemController.class, properties = "shareit.item.bulk.max-size=2")
 class ItemControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -64,6 +65,35 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(true), Boolean.class));
     }
 
+    @Test
+    void addItems() throws Exception {
+        ItemDto secondItemDto = new ItemDto(2L, "дрель", "ударная дрель", true, null);
+        Mockito.when(itemService.addItems(List.of(itemDto, secondItemDto), 1L))
+                .thenReturn(List.of(itemDto, secondItemDto));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, secondItemDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(jsonPath("$[1].name", is("дрель")));
+    }
+
+    @Test
+    void addItemsOverBatchLimit() throws Exception {
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, itemDto, itemDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("За один запрос можно добавить не больше 2 вещей")));
+        Mockito.verify(itemService, Mockito.never()).addItems(Mockito.any(), Mockito.any());
+    }
+
     @Test
     void editItem() throws Exception {
         Mockito.when(itemService.editItem(1L, itemDto, 1L))
@@ -141,7 +171,7 @@ class ItemControllerTest {
 
     @Test
     void searchItems() throws Exception {
-        Mockito.when(itemService.searchItems("Отв", 0, 10))
+        Mockito.when(itemService.searchItems("Отв", null, null, 0, 10))
                 .thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items/search?text=Отв&from=0&to=10")
@@ -155,4 +185,61 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())))
                 .andExpect(jsonPath("$[0].requestId", nullValue()));
     }
+
+    @Test
+    void searchItemsRanked() throws Exception {
+        Mockito.when(itemService.searchItemsRanked("Отв", null, null, 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search?text=Отв&ranked=true")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        Mockito.verify(itemService, Mockito.never()).searchItems("Отв", null, null, 0, 10);
+    }
+
+    @Test
+    void searchAvailableItems() throws Exception {
+        Mockito.when(itemService.searchItems("Отв", LocalDateTime.of(2030, 1, 1, 10, 0),
+                        LocalDateTime.of(2030, 1, 5, 10, 0), 0, 10))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "Отв")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-05T10:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 5, 10, 0);
+        Mockito.when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new FreeIntervalDto(from, from.plusDays(1)),
+                        new FreeIntervalDto(from.plusDays(2), to)));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-05T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-02T10:00:00")))
+                .andExpect(jsonPath("$[1].start", is("2030-01-03T10:00:00")));
+    }
+
+    @Test
+    void getAvailabilityWithoutPeriod() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(itemService, Mockito.never()).getAvailability(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
 }
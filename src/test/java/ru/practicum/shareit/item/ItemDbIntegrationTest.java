@@ -4,7 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.CustomPageRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDTOMapper;
@@ -17,13 +21,17 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @DataJpaTest
+@Import(InvertedIndexItemSearchEngine.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemDbIntegrationTest {
     @Autowired
@@ -32,6 +40,10 @@ class ItemDbIntegrationTest {
     private UserRepository userRepository;
     @Autowired
     private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private InvertedIndexItemSearchEngine searchEngine;
     private ItemDto firstItem;
     private ItemDto secondItem;
     private User user;
@@ -81,12 +93,28 @@ class ItemDbIntegrationTest {
         CommentDto commentDto = new CommentDto(1L, "отличная дрель", "Иван", creationDate);
         Comment comment = commentRepository.saveAndFlush(ItemDTOMapper.fromCommentDto(commentDto,
                 ItemDTOMapper.fromItemDto(secondItem, secondUser, null), user, creationDate));
-        List<Comment> comments = commentRepository.findAllByItem_Id(2L);
+        List<Comment> comments = commentRepository.findAllByItem_IdIn(List.of(2L));
         assertEquals(1, comments.size());
         assertEquals(comment, comments.get(0));
 
     }
 
+    @Test
+    void getCommentsOfItems() {
+        LocalDateTime creationDate = LocalDateTime.of(2022, 10, 24, 13, 0);
+        Item item = itemRepository.findById(1L).get();
+        Item secondItem = itemRepository.findById(2L).get();
+        commentRepository.saveAndFlush(new Comment(null, "отличная отвертка", item, secondUser, creationDate));
+        commentRepository.saveAndFlush(new Comment(null, "отличная дрель", secondItem, user, creationDate));
+
+        List<Comment> comments = commentRepository.findAllByItem_IdIn(List.of(1L, 2L));
+        List<Comment> firstItemComments = commentRepository.findAllByItem_IdIn(List.of(1L));
+
+        assertEquals(2, comments.size());
+        assertEquals(1, firstItemComments.size());
+        assertEquals("отличная отвертка", firstItemComments.get(0).getText());
+    }
+
     @Test
     void getItem() {
         Item item = itemRepository.findById(1L).get();
@@ -108,11 +136,93 @@ class ItemDbIntegrationTest {
     @Test
     void searchItems() {
         CustomPageRequest pageRequest = new CustomPageRequest(0, 2);
-        List<Item> items = itemRepository.search("отВерт", pageRequest);
+        searchEngine.rebuild();
+        List<Item> items = searchEngine.search("отВерт", pageRequest);
+        assertEquals(1, items.size());
+        assertEquals(1L, items.get(0).getId());
+        assertEquals(0, searchEngine.search("дрель", pageRequest).size());
+    }
+
+    @Test
+    void searchItemsAfterChanges() {
+        CustomPageRequest pageRequest = new CustomPageRequest(0, 2);
+        searchEngine.rebuild();
+        Item drill = itemRepository.findById(2L).get();
+        searchEngine.index(itemRepository.save(new Item(drill.getId(), drill.getName(), drill.getDescription(),
+                drill.getOwner(), true, drill.getRequest())));
+
+        assertEquals(2L, searchEngine.search("отличная ДРЕ", pageRequest).get(0).getId());
+
+        searchEngine.remove(1L);
+        assertEquals(0, searchEngine.search("отвертка", pageRequest).size());
+    }
+
+    @Test
+    void searchAvailableItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 12, 12, 0);
+        Item rejected = itemRepository.save(new Item(null, "отвертка", "крестовая", user, true, null));
+        Item adjacent = itemRepository.save(new Item(null, "отвертка", "плоская", user, true, null));
+        Item first = itemRepository.findById(1L).get();
+        bookingRepository.save(new Booking(null, first, secondUser, start.minusDays(1), start.plusHours(1),
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, rejected, secondUser, start, end, BookingStatus.REJECTED));
+        bookingRepository.save(new Booking(null, adjacent, secondUser, start.minusDays(1), start,
+                BookingStatus.WAITING));
+        searchEngine.rebuild();
+
+        List<Item> items = searchEngine.searchAvailable("отвертка", start, end, new CustomPageRequest(0, 10));
+
+        assertEquals(List.of(rejected.getId(), adjacent.getId()),
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(adjacent.getId()), searchEngine.searchAvailable("отвертка", start, end,
+                new CustomPageRequest(1, 1)).stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(3, searchEngine.searchAvailable("отвертка", end, end.plusDays(1),
+                new CustomPageRequest(0, 10)).size());
+        assertEquals(0, searchEngine.searchAvailable("пила", start, end, new CustomPageRequest(0, 10)).size());
+    }
+
+    @Test
+    void searchAvailableItemsAcrossIdChunks() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 12, 12, 0);
+        List<Item> chisels = new ArrayList<>();
+        for (int i = 0; i < InvertedIndexItemSearchEngine.ID_CHUNK_SIZE + 2; i++) {
+            chisels.add(new Item(null, "стамеска", "стамеска " + i, user, true, null));
+        }
+        List<Item> saved = itemRepository.saveAll(chisels);
+        searchEngine.rebuild();
+
+        List<Item> lastPage = searchEngine.searchAvailable("стамеска", start, end,
+                new CustomPageRequest(InvertedIndexItemSearchEngine.ID_CHUNK_SIZE, 10));
+
+        assertEquals(List.of(saved.get(saved.size() - 2).getId(), saved.get(saved.size() - 1).getId()),
+                lastPage.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(3, searchEngine.findFuzzyAvailableCandidates("стамеска", start, end, 3).size());
+    }
+
+    @Test
+    void findFuzzyCandidates() {
+        searchEngine.rebuild();
+        List<Item> items = searchEngine.findFuzzyCandidates("атвертка", 10);
         assertEquals(1, items.size());
         assertEquals(1L, items.get(0).getId());
     }
 
+    @Test
+    void findFuzzyAvailableCandidates() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 12, 12, 0);
+        Item free = itemRepository.save(new Item(null, "отвертка", "крестовая", user, true, null));
+        bookingRepository.save(new Booking(null, itemRepository.findById(1L).get(), secondUser, start, end,
+                BookingStatus.APPROVED));
+        searchEngine.rebuild();
+
+        List<Item> items = searchEngine.findFuzzyAvailableCandidates("атвертка", start, end, 1);
+
+        assertEquals(List.of(free.getId()), items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void deleteItem() {
         itemRepository.deleteById(1L);
@@ -120,4 +230,21 @@ class ItemDbIntegrationTest {
         assertEquals(1, items.size());
         assertEquals(ItemDTOMapper.fromItemDto(secondItem, secondUser, null), items.get(0));
     }
+
+    @Test
+    void insertAllAllocatesSequenceIds() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < Item.ID_ALLOCATION_SIZE + 10; i++) {
+            items.add(new Item(null, "дрель " + i, "дрель из каталога", user, true, null));
+        }
+
+        List<Item> inserted = itemRepository.insertAll(items);
+        Item single = itemRepository.saveAndFlush(new Item(null, "пила", "ручная пила", user, true, null));
+
+        Set<Long> ids = inserted.stream().map(Item::getId).collect(Collectors.toSet());
+        assertEquals(items.size(), ids.size());
+        assertFalse(ids.contains(single.getId()));
+        assertEquals(items.size() + 3, itemRepository.count());
+        assertEquals("дрель 0", itemRepository.findById(inserted.get(0).getId()).get().getName());
+    }
 }
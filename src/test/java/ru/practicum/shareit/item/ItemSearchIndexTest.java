@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:itemsearchindex")
+class ItemSearchIndexTest {
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void followsCommittedChangesOnly() {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "index-owner@mail.ru"));
+        CustomPageRequest page = new CustomPageRequest(0, 10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.addItem(new ItemDto(null, "рубанок", "ручной", true, null), owner.getId());
+            itemService.addItems(List.of(new ItemDto(null, "стамеска", "узкая", true, null)), owner.getId());
+            status.setRollbackOnly();
+        });
+        assertEquals(0, searchEngine.search("рубанок", page).size());
+        assertEquals(0, searchEngine.search("стамеска", page).size());
+
+        ItemDto item = itemService.addItem(new ItemDto(null, "рубанок", "ручной", true, null), owner.getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.editItem(item.getId(), new ItemDto(null, "фуганок", null, null, null), owner.getId());
+            itemService.deleteItem(item.getId(), owner.getId());
+            status.setRollbackOnly();
+        });
+        assertEquals(1, searchEngine.search("рубанок", page).size());
+        assertEquals(0, searchEngine.search("фуганок", page).size());
+    }
+}
@@ -2,18 +2,26 @@ package ru.practicum.shareit.item;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.booking.BookingTimelineCache;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
 import ru.practicum.shareit.exception.exceptions.BadRequestException;
 import ru.practicum.shareit.exception.exceptions.ForbiddenException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -23,14 +31,23 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +70,21 @@ class ItemServiceImplTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private BookingTimelineCache timelineCache;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 12, 1, 12, 0);
+
+    @Spy
+    private RequestTime requestTime = new RequestTime(
+            Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
     private final User user = new User(1L, "test", "test@mail.ru");
     private final User secondUser = new User(1L, "test", "test@mail.ru");
 
@@ -137,23 +169,25 @@ class ItemServiceImplTest {
 
     @Test
     void addItem() {
-        Mockito.when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
 
-        Mockito.when(itemRepository.saveAndFlush(item))
+        Mockito.when(itemRepository.save(item))
                 .thenReturn(item);
 
         ItemDto createdItemDto = itemService.addItem(itemDtoWithId, 1L);
 
         assertEquals(itemDtoWithId, createdItemDto);
         Mockito.verify(itemRepository, Mockito.times(1))
-                .saveAndFlush(item);
+                .save(item);
     }
 
     @Test
     void addItemWrongUser() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
                 () -> itemService.addItem(itemDto, 1L));
@@ -162,11 +196,13 @@ class ItemServiceImplTest {
 
     @Test
     void addItemWithRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
         Mockito.when(requestRepository.findById(1L))
                 .thenReturn(Optional.of(request));
-        Mockito.when(itemRepository.saveAndFlush(itemWithRequest))
+        Mockito.when(itemRepository.save(itemWithRequest))
                 .thenReturn(itemWithRequest);
 
         ItemDto createdItemDto = itemService.addItem(itemDtoWithRequest, 1L);
@@ -175,8 +211,10 @@ class ItemServiceImplTest {
 
     @Test
     void addItemUnknownRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
         Mockito.when(requestRepository.findById(1L))
                 .thenReturn(Optional.empty());
 
@@ -185,15 +223,61 @@ class ItemServiceImplTest {
         assertEquals("Запрос с id=1 не найден", notFoundException.getMessage());
     }
 
+    @Test
+    void addItems() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(requestRepository.findAllById(Set.of(1L)))
+                .thenReturn(List.of(request));
+        Mockito.when(itemRepository.insertAll(anyList()))
+                .thenReturn(List.of(item, new Item(2L, "Отвертка", "лучшая отвертка", user, true, request)));
+
+        List<ItemDto> createdItems = itemService.addItems(List.of(itemDto, itemDtoWithRequest), 1L);
+
+        assertEquals(List.of(itemDtoWithId, new ItemDto(2L, "Отвертка", "лучшая отвертка", true, 1L)), createdItems);
+        ArgumentCaptor<List<Item>> insertedItems = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemRepository).insertAll(insertedItems.capture());
+        assertNull(insertedItems.getValue().get(0).getRequest());
+        assertEquals(request, insertedItems.getValue().get(1).getRequest());
+        Mockito.verify(searchEngine, Mockito.times(2)).index(any());
+    }
+
+    @Test
+    void addItemsInvalidItem() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+
+        BadRequestException badRequestException = assertThrows(BadRequestException.class,
+                () -> itemService.addItems(List.of(itemDto, new ItemDto(null, "Отвертка", "", true, null)), 1L));
+
+        assertEquals("Некорректная вещь №1: Описание не должно быть пустым null", badRequestException.getMessage());
+        Mockito.verify(itemRepository, Mockito.never()).insertAll(any());
+    }
+
+    @Test
+    void addItemsUnknownRequest() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(requestRepository.findAllById(Set.of(1L)))
+                .thenReturn(List.of());
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemService.addItems(List.of(itemDtoWithRequest), 1L));
+
+        assertEquals("Запрос с id=1 не найден", notFoundException.getMessage());
+    }
+
     @Test
     void addComment() {
         Mockito.when(itemRepository.findById(1L))
                 .thenReturn(Optional.of(item));
         Mockito.when(userRepository.findById(2L))
                 .thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findAllBookingsOfItemAndOwner(anyLong(), anyLong(), any()))
+        Mockito.when(bookingRepository.findAllBookingsOfItemAndOwner(anyLong(), anyLong(), Mockito.eq(NOW)))
                 .thenReturn(List.of(booking));
-        Mockito.when(commentRepository.saveAndFlush(comment))
+        Mockito.when(commentRepository.save(comment))
                 .thenReturn(comment);
 
         CommentDto createdComment = itemService.addComment(1L, 2L, commentDto);
@@ -259,13 +343,13 @@ class ItemServiceImplTest {
                 false,
                 null
         );
-        Mockito.when(itemRepository.saveAndFlush(itemToUpdate))
+        Mockito.when(itemRepository.save(itemToUpdate))
                 .thenReturn(itemToUpdate);
 
         ItemDto editedItem = itemService.editItem(1L, itemDtoToUpdate, 1L);
         assertEquals(itemDtoToUpdate, editedItem);
         Mockito.verify(itemRepository, Mockito.times(1))
-                .saveAndFlush(itemToUpdate);
+                .save(itemToUpdate);
     }
 
     @Test
@@ -296,9 +380,11 @@ class ItemServiceImplTest {
     void getItem() {
         Mockito.when(itemRepository.findById(1L))
                 .thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findAllByItem_Id(anyLong()))
+        Mockito.when(bookingRepository.findLastBookings(anyCollection(), any(), any()))
                 .thenReturn(List.of());
-        Mockito.when(commentRepository.findAllByItem_Id(anyLong()))
+        Mockito.when(bookingRepository.findNextBookings(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        Mockito.when(commentRepository.findAllByItem_IdIn(anyCollection()))
                 .thenReturn(List.of());
 
 
@@ -325,9 +411,11 @@ class ItemServiceImplTest {
         CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
         Mockito.when(itemRepository.findAllByOwner_Id(1L, pageRequest))
                 .thenReturn(List.of(item));
-        Mockito.when(bookingRepository.findAllByItem_Id(anyLong()))
+        Mockito.when(bookingRepository.findLastBookings(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        Mockito.when(bookingRepository.findNextBookings(anyCollection(), any(), any()))
                 .thenReturn(List.of());
-        Mockito.when(commentRepository.findAllByItem_Id(anyLong()))
+        Mockito.when(commentRepository.findAllByItem_IdIn(anyCollection()))
                 .thenReturn(List.of());
 
         List<ItemBookingDto> itemBookingDtos = itemService.getAllItems(1L, 0, 10);
@@ -345,27 +433,138 @@ class ItemServiceImplTest {
 
     }
 
+    @Test
+    void getAllItemsLoadsLastAndNextBookingsOnce() {
+        CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
+        Item secondItem = new Item(2L, "Дрель", "мощная дрель", user, true, null);
+        Comment secondItemComment = new Comment(2L, "хорошая дрель", secondItem, secondUser,
+                LocalDateTime.of(2022, 11, 30, 12, 0));
+
+        Mockito.when(itemRepository.findAllByOwner_Id(1L, pageRequest))
+                .thenReturn(List.of(item, secondItem));
+        Mockito.when(bookingRepository.findLastBookings(anyCollection(), any(), Mockito.eq(BookingStatus.APPROVED)))
+                .thenReturn(List.of(new BookingShortDto(1L, 1L, 2L)));
+        Mockito.when(bookingRepository.findNextBookings(anyCollection(), any(), Mockito.eq(BookingStatus.APPROVED)))
+                .thenReturn(List.of(new BookingShortDto(3L, 2L, 2L), new BookingShortDto(2L, 2L, 2L)));
+        Mockito.when(commentRepository.findAllByItem_IdIn(anyCollection()))
+                .thenReturn(List.of(comment, secondItemComment));
+
+        List<ItemBookingDto> itemBookingDtos = itemService.getAllItems(1L, 0, 10);
+
+        assertEquals(2, itemBookingDtos.size());
+        assertEquals(1L, itemBookingDtos.get(0).getLastBooking().getId());
+        assertEquals(2L, itemBookingDtos.get(0).getLastBooking().getBookerId());
+        assertNull(itemBookingDtos.get(0).getNextBooking());
+        assertEquals(List.of(commentDto), itemBookingDtos.get(0).getComments());
+        assertNull(itemBookingDtos.get(1).getLastBooking());
+        assertEquals(2L, itemBookingDtos.get(1).getNextBooking().getId());
+        assertEquals(1, itemBookingDtos.get(1).getComments().size());
+        assertEquals("хорошая дрель", itemBookingDtos.get(1).getComments().get(0).getText());
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findLastBookings(anyCollection(), Mockito.eq(NOW), any());
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findNextBookings(anyCollection(), Mockito.eq(NOW), any());
+        Mockito.verify(commentRepository, Mockito.times(1))
+                .findAllByItem_IdIn(anyCollection());
+    }
+
+    @Test
+    void getItemByNotOwnerSkipsBookings() {
+        Mockito.when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        Mockito.when(commentRepository.findAllByItem_IdIn(anyCollection()))
+                .thenReturn(List.of());
+
+        ItemBookingDto bookingDto = itemService.getItem(1L, 2L);
+
+        assertEquals(itemBookingDto, bookingDto);
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void searchItems() {
         CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
-        Mockito.when(itemRepository.search("отВерт", pageRequest))
+        Mockito.when(searchEngine.search("отВерт", pageRequest))
                 .thenReturn(List.of(item));
 
-        List<ItemDto> itemDtos = itemService.searchItems("отВерт", 0, 10);
+        List<ItemDto> itemDtos = itemService.searchItems("отВерт", null, null, 0, 10);
         assertEquals(List.of(itemDtoWithId).get(0).getId(), itemDtos.get(0).getId());
         assertEquals(List.of(itemDto).size(), itemDtos.size());
 
-        Mockito.verify(itemRepository,
+        Mockito.verify(searchEngine,
                         Mockito.times(1))
                 .search("отВерт", pageRequest);
 
-        Mockito.when(itemRepository.search("kkk", pageRequest))
+        Mockito.when(searchEngine.search("kkk", pageRequest))
                 .thenReturn(List.of());
 
-        List<ItemDto> emptyItemDtos = itemService.searchItems("kkk", 0, 10);
+        List<ItemDto> emptyItemDtos = itemService.searchItems("kkk", null, null, 0, 10);
         assertEquals(0, emptyItemDtos.size());
     }
 
+    @Test
+    void searchItemsRanked() {
+        Item byDescription = new Item(2L, "Набор", "набор отверток", user, true, null);
+        Item byTypo = new Item(3L, "Отвортка", "крестовая", user, true, null);
+        Item unrelated = new Item(4L, "Дрель", "ударная", user, true, null);
+        Mockito.when(searchEngine.findFuzzyCandidates(Mockito.eq("отвертка"), Mockito.anyInt()))
+                .thenReturn(List.of(unrelated, byDescription, byTypo, item));
+
+        List<ItemDto> itemDtos = itemService.searchItemsRanked("отвертка", null, null, 0, 10);
+        assertEquals(List.of(1L, 3L, 2L), itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList()));
+
+        List<ItemDto> secondPage = itemService.searchItemsRanked("отвертка", null, null, 1, 1);
+        assertEquals(List.of(3L), secondPage.stream().map(ItemDto::getId).collect(Collectors.toList()));
+
+        assertEquals(0, itemService.searchItemsRanked(" ", null, null, 0, 10).size());
+    }
+
+    @Test
+    void searchItemsRankedPastCandidateLimit() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> itemService.searchItemsRanked("отвертка", null, null, 495, 10));
+
+        assertEquals("Ранжированный поиск возвращает не больше 500 вещей", exception.getMessage());
+        Mockito.verifyNoInteractions(searchEngine);
+    }
+
+    @Test
+    void searchAvailableItems() {
+        CustomPageRequest pageRequest = new CustomPageRequest(0, 10);
+        Mockito.when(searchEngine.searchAvailable("отВерт", NOW, NOW.plusDays(2), pageRequest))
+                .thenReturn(List.of(item));
+
+        List<ItemDto> itemDtos = itemService.searchItems("отВерт", NOW, NOW.plusDays(2), 0, 10);
+
+        assertEquals(1, itemDtos.size());
+        Mockito.verify(searchEngine, Mockito.never()).search(any(), any());
+    }
+
+    @Test
+    void searchAvailableItemsRanked() {
+        Item byTypo = new Item(3L, "Отвортка", "крестовая", user, true, null);
+        Mockito.when(searchEngine.findFuzzyAvailableCandidates(Mockito.eq("отвертка"), Mockito.eq(NOW),
+                        Mockito.eq(NOW.plusDays(2)), Mockito.anyInt()))
+                .thenReturn(List.of(byTypo));
+
+        List<ItemDto> itemDtos = itemService.searchItemsRanked("отвертка", NOW, NOW.plusDays(2), 0, 10);
+
+        assertEquals(List.of(3L), itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        Mockito.verify(searchEngine, Mockito.never()).findFuzzyCandidates(any(), Mockito.anyInt());
+    }
+
+    @Test
+    void searchItemsWrongPeriod() {
+        BadRequestException withoutEnd = assertThrows(BadRequestException.class,
+                () -> itemService.searchItems("отВерт", NOW, null, 0, 10));
+        BadRequestException endBeforeStart = assertThrows(BadRequestException.class,
+                () -> itemService.searchItemsRanked("отВерт", NOW, NOW.minusDays(1), 0, 10));
+
+        assertEquals("Необходимо указать начало и конец периода", withoutEnd.getMessage());
+        assertEquals("Конец периода не может быть раньше начала", endBeforeStart.getMessage());
+        Mockito.verifyNoInteractions(searchEngine);
+    }
+
     @Test
     void deleteItem() {
         Mockito.when(itemRepository.findById(1L))
@@ -375,6 +574,49 @@ class ItemServiceImplTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .deleteById(1L);
+        Mockito.verify(timelineCache, Mockito.times(1)).evict(1L);
+    }
+
+    @Test
+    void getAvailability() {
+        Mockito.when(timelineCache.get(1L, NOW))
+                .thenReturn(Optional.of(new BookingTimeline(List.of(
+                        new BookingIntervalDto(1L, NOW.plusDays(2), NOW.plusDays(3))))));
+
+        List<FreeIntervalDto> free = itemService.getAvailability(1L, NOW.plusDays(1), NOW.plusDays(5));
+
+        assertEquals(List.of(new FreeIntervalDto(NOW.plusDays(1), NOW.plusDays(2)),
+                new FreeIntervalDto(NOW.plusDays(3), NOW.plusDays(5))), free);
+    }
+
+    @Test
+    void getAvailabilityStartsNow() {
+        Mockito.when(timelineCache.get(1L, NOW))
+                .thenReturn(Optional.of(new BookingTimeline(List.of())));
+
+        assertEquals(List.of(new FreeIntervalDto(NOW, NOW.plusDays(1))),
+                itemService.getAvailability(1L, NOW.minusDays(3), NOW.plusDays(1)));
+        assertEquals(List.of(), itemService.getAvailability(1L, NOW.minusDays(3), NOW.minusDays(1)));
+    }
+
+    @Test
+    void getAvailabilityUnknownItem() {
+        Mockito.when(timelineCache.get(1L, NOW))
+                .thenReturn(Optional.empty());
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(1L, NOW, NOW.plusDays(1)));
+
+        assertEquals("Вещь с id=1 не найдена", notFoundException.getMessage());
+    }
+
+    @Test
+    void getAvailabilityWrongPeriod() {
+        BadRequestException badRequestException = assertThrows(BadRequestException.class,
+                () -> itemService.getAvailability(1L, NOW.plusDays(2), NOW.plusDays(1)));
+
+        assertEquals("Конец периода не может быть раньше начала", badRequestException.getMessage());
+        Mockito.verify(timelineCache, Mockito.never()).get(anyLong(), any());
     }
 
     @Test
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void recordsQueriesPerRequest() throws Exception {
+        mockMvc.perform(post("/users")
+                        .content("{\"name\":\"owner\",\"email\":\"owner@mail.ru\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+
+        DistributionSummary queries = registry.find(QueryCountFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/items")
+                .summary();
+        assertNotNull(queries);
+        assertEquals(1, queries.count());
+        assertTrue(queries.totalAmount() >= 1);
+
+        DistributionSummary rows = registry.find(RepositoryRowCountPostProcessor.METRIC_NAME)
+                .tags("repository", "ItemRepository", "method", "findAllByOwner_Id")
+                .summary();
+        assertNotNull(rows);
+        assertEquals(0, rows.totalAmount());
+    }
+
+    @Test
+    void tagsBookingRequestsWithStateAndRole() throws Exception {
+        mockMvc.perform(get("/bookings/owner?state=PAST")
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings?state=SOMETHING")
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(status().isBadRequest());
+
+        Timer ownerTimer = registry.find("http.server.requests")
+                .tags("uri", "/bookings/owner", "state", "PAST", "role", "owner")
+                .timer();
+        Timer bookerTimer = registry.find("http.server.requests")
+                .tags("uri", "/bookings", "state", "UNKNOWN", "role", "booker")
+                .timer();
+        assertNotNull(ownerTimer);
+        assertNotNull(bookerTimer);
+    }
+
+    @Test
+    void leavesOtherBookingRequestsUntagged() throws Exception {
+        mockMvc.perform(get("/bookings/{id}", 1)
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 100)
+                        .content("{\"itemId\":1000,\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 100));
+
+        for (String uri : new String[]{"/bookings/{bookingId}", "/bookings/owner/export"}) {
+            Timer timer = registry.find("http.server.requests")
+                    .tags("uri", uri)
+                    .timer();
+            assertNotNull(timer, uri);
+            assertEquals("none", timer.getId().getTag("role"));
+            assertEquals("none", timer.getId().getTag("state"));
+        }
+        Timer create = registry.find("http.server.requests")
+                .tags("method", "POST", "uri", "/bookings")
+                .timer();
+        assertNotNull(create);
+        assertEquals("none", create.getId().getTag("role"));
+    }
+}
@@ -58,8 +58,16 @@ class RequestControllerTest {
 
     @Test
     void getOwnRequests() throws Exception {
-        Mockito.when(requestService.getOwnersRequests(1L))
+        Mockito.when(requestService.getOwnersRequests(1L, 0, null))
                 .thenReturn(List.of(requestDto));
+        Mockito.when(requestService.getOwnersRequests(1L, 5, 5))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/requests?from=5&size=5")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
 
         mockMvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1)
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.common.CustomPageRequest;
@@ -69,8 +70,7 @@ class RequestDbIntegrationTest {
 
     @Test
     void getOwnersRequests() {
-        Sort sort = Sort.by("created").descending();
-        List<Request> requests = requestRepository.findAllByRequestor_Id(1L, sort);
+        List<Request> requests = requestRepository.findAllByRequestor_Id(1L, Pageable.unpaged());
 
         assertEquals(1, requests.size());
         assertEquals(secondRequest, requests.get(0));
@@ -5,21 +5,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.RequestTime;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -39,6 +47,10 @@ class RequestServiceImplTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Spy
+    private RequestTime requestTime = new RequestTime(Clock.fixed(
+            LocalDateTime.of(2022, 11, 11, 11, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
     private final User user = new User(1L, "test", "test@mail.ru");
 
     private final Request request = new Request(1L, "нужна отвертка", user,
@@ -50,24 +62,25 @@ class RequestServiceImplTest {
 
     @Test
     void addRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(requestRepository.saveAndFlush(request))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L))
+                .thenReturn(user);
+        Mockito.when(requestRepository.save(request))
                 .thenReturn(request);
-        Mockito.when(itemRepository.findAllByRequest_Id(1L))
-                .thenReturn(List.of());
 
         RequestDto createdRequest = requestService.addRequest(createRequestDto, 1L);
 
         assertEquals(requestDto, createdRequest);
         Mockito.verify(requestRepository, Mockito.times(1))
-                .saveAndFlush(request);
+                .save(request);
+        Mockito.verify(itemRepository, Mockito.never()).findAllByRequest_Id(anyLong());
     }
 
     @Test
     void addRequestUnknownUser() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
                 () -> requestService.addRequest(createRequestDto, 1L));
@@ -77,27 +90,53 @@ class RequestServiceImplTest {
 
     @Test
     void getOwnersRequest() {
-        Sort sort = Sort.by("created").descending();
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
-        Mockito.when(requestRepository.findAllByRequestor_Id(1L, sort))
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(requestRepository.findAllByRequestor_Id(1L, Pageable.unpaged()))
                 .thenReturn(List.of(request));
 
-        List<RequestDto> ownersRequests = requestService.getOwnersRequests(1L);
+        List<RequestDto> ownersRequests = requestService.getOwnersRequests(1L, 0, null);
 
         assertEquals(1, ownersRequests.size());
         assertEquals(requestDto, ownersRequests.get(0));
         Mockito.verify(requestRepository, Mockito.times(1))
-                .findAllByRequestor_Id(1L, sort);
+                .findAllByRequestor_Id(1L, Pageable.unpaged());
+    }
+
+    @Test
+    void getOwnersRequestsPage() {
+        Request secondRequest = new Request(2L, "нужна дрель", user,
+                LocalDateTime.of(2022, 11, 10, 11, 0));
+        User owner = new User(2L, "owner", "owner@mail.ru");
+        Item screwdriver = new Item(1L, "Отвертка", "крестовая", owner, true, request);
+        Item drill = new Item(2L, "Дрель", "ударная", owner, true, secondRequest);
+        Item secondScrewdriver = new Item(3L, "Отвертка", "плоская", owner, true, request);
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito.when(requestRepository.findAllByRequestor_Id(1L, new CustomPageRequest(0, 2)))
+                .thenReturn(List.of(request, secondRequest));
+        Mockito.when(itemRepository.findAllByRequest_IdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(screwdriver, drill, secondScrewdriver));
+
+        List<RequestDto> ownersRequests = requestService.getOwnersRequests(1L, 0, 2);
+
+        assertEquals(2, ownersRequests.size());
+        assertEquals(List.of(1L, 3L), ownersRequests.get(0).getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(2L), ownersRequests.get(1).getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        Mockito.verify(itemRepository, Mockito.never()).findAllByRequest_Id(anyLong());
     }
 
     @Test
     void getOwnersRequestsUnknownUser() {
-        Mockito.when(userRepository.findById(2L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
-                () -> requestService.getOwnersRequests(2L));
+                () -> requestService.getOwnersRequests(2L, 0, null));
 
         assertEquals("Пользователь с id=2 не найден", notFoundException.getMessage());
     }
@@ -122,8 +161,8 @@ class RequestServiceImplTest {
 
     @Test
     void getRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
         Mockito.when(requestRepository.findById(1L))
                 .thenReturn(Optional.of(request));
 
@@ -135,8 +174,8 @@ class RequestServiceImplTest {
 
     @Test
     void getUnknownRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
         Mockito.when(requestRepository.findById(2L))
                 .thenReturn(Optional.empty());
 
@@ -150,8 +189,8 @@ class RequestServiceImplTest {
 
     @Test
     void getUnknownUserRequest() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
                 () -> requestService.getRequest(1L, 1L));
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usercache")
+@AutoConfigureMockMvc
+class UserCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void cachesExistingUsers() {
+        User user = userRepository.saveAndFlush(new User(null, "cached", "cached@mail.ru"));
+
+        assertTrue(userRepository.existsById(user.getId()));
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+        assertTrue(userRepository.existsById(user.getId()));
+
+        FunctionCounter hits = registry.find("cache.gets")
+                .tags("cache", UserRepository.USER_EXISTS_CACHE, "result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        assertTrue(hits.count() >= 1);
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        assertFalse(userRepository.existsById(1000L));
+        jdbcTemplate.update("insert into users (id, name, email) values (1000, 'late', 'late@mail.ru')");
+        assertTrue(userRepository.existsById(1000L));
+    }
+
+    @Test
+    void evictsDeletedUsersAfterCommit() throws Exception {
+        User user = userRepository.saveAndFlush(new User(null, "deleted", "deleted@mail.ru"));
+        Cache userExists = cacheManager.getCache(UserRepository.USER_EXISTS_CACHE);
+        assertNotNull(userExists);
+
+        assertTrue(userRepository.existsById(user.getId()));
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(user.getId());
+            assertNotNull(userExists.get(user.getId()));
+        });
+        assertNull(userExists.get(user.getId()));
+
+        mockMvc.perform(post("/requests")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content("{\"description\":\"нужна дрель\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -24,6 +26,12 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache userExistsCache;
+
     private final User user = new User(
             1L,
             "test user",
@@ -38,13 +46,13 @@ class UserServiceImplTest {
 
     @Test
     void addUser() {
-        Mockito.when(userRepository.saveAndFlush(user))
+        Mockito.when(userRepository.save(user))
                 .thenReturn(user);
 
         UserDto createdUser = userService.addUser(userDto);
         assertEquals(userDto, createdUser);
         Mockito.verify(userRepository, Mockito.times(1))
-                .saveAndFlush(user);
+                .save(user);
 
     }
 
@@ -55,14 +63,14 @@ class UserServiceImplTest {
 
         Mockito.when(userRepository.findById(1L))
                 .thenReturn(Optional.of(user));
-        Mockito.when(userRepository.saveAndFlush(userToUpdate))
+        Mockito.when(userRepository.save(userToUpdate))
                 .thenReturn(userToUpdate);
 
         UserDto updatedUser = userService.editUser(userToUpdateDto, 1L);
 
         assertEquals(userToUpdateDto, updatedUser);
         Mockito.verify(userRepository, Mockito.times(1))
-                .saveAndFlush(userToUpdate);
+                .save(userToUpdate);
     }
 
     @Test
@@ -122,8 +130,13 @@ class UserServiceImplTest {
 
     @Test
     void deleteUser() {
+        Mockito.when(cacheManager.getCache(UserRepository.USER_EXISTS_CACHE))
+                .thenReturn(userExistsCache);
+
         userService.deleteUser(1L);
         Mockito.verify(userRepository, Mockito.times(1))
                 .deleteById(1L);
+        Mockito.verify(userExistsCache, Mockito.times(1))
+                .evict(1L);
     }
 }
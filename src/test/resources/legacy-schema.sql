@@ -0,0 +1,64 @@
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_user PRIMARY KEY (id),
+    CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(10000) NOT NULL,
+    available BOOLEAN NOT NULL,
+    owner_id BIGINT NOT NULL,
+    request_id BIGINT,
+    CONSTRAINT pk_items PRIMARY KEY (id),
+    CONSTRAINT fk_users_owner_id FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR,
+    CONSTRAINT pk_bookings PRIMARY KEY (id),
+    CONSTRAINT fk_items_item_id FOREIGN KEY (item_id) REFERENCES items(id) on DELETE CASCADE,
+    CONSTRAINT fk_users_booker_id FOREIGN KEY (booker_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description VARCHAR(10000) NOT NULL,
+    requestor_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_requests PRIMARY KEY (id),
+    CONSTRAINT fk_users_requestor_id FOREIGN KEY (requestor_id) REFERENCES users(id)
+);
+
+ALTER TABLE items ADD CONSTRAINT fk_items_request_id FOREIGN KEY (request_id) REFERENCES requests(id);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    text VARCHAR(10000) NOT NULL,
+    item_id BIGINT,
+    author_id BIGINT,
+    created_date TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_comments PRIMARY KEY (id),
+    CONSTRAINT fk_items_id FOREIGN KEY (item_id) REFERENCES items (id) on DELETE CASCADE,
+    CONSTRAINT  fk_users_author_id FOREIGN KEY (author_id) REFERENCES users(id)
+);
+
+
+
+
+INSERT INTO users (name, email) VALUES ('user1', 'user1@mail.ru'), ('user2', 'user2@mail.ru'), ('user3', 'user3@mail.ru');
+INSERT INTO requests (description, requestor_id, created) VALUES ('нужна дрель', 2, '2022-11-01 10:00:00');
+INSERT INTO items (name, description, available, owner_id, request_id)
+VALUES ('отвертка', 'крестовая', true, 1, null), ('дрель', 'ударная', true, 1, 1);
+INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)
+VALUES ('2022-11-01 10:00:00', '2022-11-02 10:00:00', 1, 2, 'APPROVED'),
+       ('2022-11-03 10:00:00', '2022-11-04 10:00:00', 2, 3, 'APPROVED');
+INSERT INTO comments (text, item_id, author_id, created_date) VALUES ('хорошая', 1, 2, '2022-11-05 10:00:00');